@@ -0,0 +1,131 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
+import com.ractoc.tutorials.speedment.db.SpeedmentApplicationBuilder;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemManager;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.service.DatabaseAccessLimiter;
+import com.ractoc.tutorials.speedment.service.ItemChangeLog;
+import com.ractoc.tutorials.speedment.service.ItemIdGenerator;
+import com.ractoc.tutorials.speedment.service.ItemMetrics;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import com.ractoc.tutorials.speedment.service.ItemSqlExecutor;
+import com.ractoc.tutorials.speedment.service.TimeOrderedItemIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded MariaDB database for the benchmarks. Just like the SpeedmentDBTestCase, the database is started from the
+ * schema script and its files are created in the target folder. The item table is seeded with a given number of rows.
+ */
+public final class BenchmarkDatabase {
+
+    private static final String DB_NAME = "my_collection";
+    private static final String DB_PASSWORD = "MyCollection";
+    private static final String USERNAME = "root";
+    private static final String PASSWORD = "root";
+    private static final String SCHEMA_SCRIPT = "sql/create_schema.sql";
+    private static final int PORT_NUMBER = Integer.getInteger("benchmark.db.port", 3399);
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_DB_CONCURRENCY = 10;
+    private static final long DB_ACQUIRE_TIMEOUT_MS = 10_000;
+    private static final long CHANGE_RETENTION_MS = 604_800_000;
+
+    private final DB db;
+    private final String dbUrl;
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    private BenchmarkDatabase(DB db, String dbUrl) {
+        this.db = db;
+        this.dbUrl = dbUrl;
+    }
+
+    /**
+     * Starts a new, empty database.
+     *
+     * @return The started database.
+     * @throws ManagedProcessException An indication something went wrong while creating the database.
+     */
+    public static BenchmarkDatabase start() throws ManagedProcessException {
+        DBConfigurationBuilder configBuilder = DBConfigurationBuilder.newBuilder();
+        configBuilder.setPort(PORT_NUMBER);
+        configBuilder.setDataDir("target/benchmark/db");
+        DB db = DB.newEmbeddedDB(configBuilder.build());
+        db.start();
+        db.createDB(DB_NAME);
+        db.source(SCHEMA_SCRIPT);
+        return new BenchmarkDatabase(db, configBuilder.getURL(DB_NAME));
+    }
+
+    /**
+     * Inserts the requested number of items, using batched inserts.
+     *
+     * @param count The number of items to insert.
+     * @throws SQLException Something went wrong while inserting the items.
+     */
+    public void seed(int count) throws SQLException {
+        ItemIdGenerator idGenerator = new TimeOrderedItemIdGenerator();
+        try (Connection connection = DriverManager.getConnection(dbUrl + "?rewriteBatchedStatements=true", USERNAME, PASSWORD);
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO item (id, name, lead, item_type) VALUES (?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                String id = idGenerator.nextId();
+                String name = "item " + i;
+                statement.setString(1, id);
+                statement.setString(2, name);
+                statement.setString(3, "lead of benchmark item " + i);
+                statement.setString(4, GeneratedItem.ItemType.BOARDGAMES.toDatabase());
+                statement.addBatch();
+                ids.add(id);
+                names.add(name);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public SpeedmentApplication createApplication() {
+        return new SpeedmentApplicationBuilder()
+                .withPassword(DB_PASSWORD)
+                .withConnectionUrl(dbUrl)
+                .withParam("db.mysql.collationName", "utf8mb4_general_ci")
+                .withParam("db.mysql.binaryCollationName", "utf8mb4_bin")
+                .build();
+    }
+
+    public ItemService createItemService(SpeedmentApplication app) {
+        ItemSqlExecutor sqlExecutor = new ItemSqlExecutor(app);
+        return new ItemService(app.getOrThrow(ItemManager.class),
+                new ItemChangeLog(sqlExecutor, CHANGE_RETENTION_MS, 0),
+                sqlExecutor,
+                new TimeOrderedItemIdGenerator(),
+                new ItemMetrics(new SimpleMeterRegistry()),
+                new DatabaseAccessLimiter(MAX_DB_CONCURRENCY, DB_ACQUIRE_TIMEOUT_MS));
+    }
+
+    public void stop() throws ManagedProcessException {
+        db.stop();
+    }
+}
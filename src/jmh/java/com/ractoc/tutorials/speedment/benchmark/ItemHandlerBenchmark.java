@@ -0,0 +1,85 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
+import com.ractoc.tutorials.speedment.handler.ItemCache;
+import com.ractoc.tutorials.speedment.handler.ItemHandler;
+import com.ractoc.tutorials.speedment.handler.ItemJsonFragments;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the ItemHandler end to end, including the mapping to the API models and the item cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ItemHandlerBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int CACHE_SIZE = 1000;
+    private static final long CACHE_TTL_SECONDS = 300;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tableSize;
+
+    private BenchmarkDatabase database;
+    private SpeedmentApplication app;
+    private ItemHandler handler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start();
+        database.seed(tableSize);
+        app = database.createApplication();
+        ItemService service = database.createItemService(app);
+        handler = new ItemHandler(service, new ItemCache(CACHE_SIZE, CACHE_TTL_SECONDS), new ItemJsonFragments(service, new ObjectMapper()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        app.stop();
+        database.stop();
+    }
+
+    @Benchmark
+    public ItemModel getItemById() {
+        return handler.getItemById(database.getIds().get(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    /**
+     * Most of the traffic is for a small set of items, which should be served from the cache.
+     */
+    @Benchmark
+    public ItemModel getPopularItemById() {
+        return handler.getItemById(database.getIds().get(ThreadLocalRandom.current().nextInt(Math.min(CACHE_SIZE, tableSize))));
+    }
+
+    /**
+     * The popular items read by several threads at once, which all go through the same cache.
+     */
+    @Benchmark
+    @Threads(8)
+    public ItemModel getPopularItemByIdConcurrently() {
+        return getPopularItemById();
+    }
+
+    @Benchmark
+    public List<ItemListModel> getItemListPage() {
+        return handler.getItemList(database.getIds().get(ThreadLocalRandom.current().nextInt(tableSize)), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemListModel> getItemList() {
+        return handler.getItemList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ractoc.tutorials.speedment.controller.ItemListResponseWriter;
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
+import com.ractoc.tutorials.speedment.handler.ItemCache;
+import com.ractoc.tutorials.speedment.handler.ItemHandler;
+import com.ractoc.tutorials.speedment.handler.ItemJsonFragments;
+import com.ractoc.tutorials.speedment.handler.ReactiveItemHandler;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of returning the full item list: collecting it into a list (the servlet /item/list endpoint),
+ * writing it as newline delimited JSON (/item/list/stream), writing the list response assembled from the cached JSON
+ * of the items (the compressed /item/list) and emitting it as a flux (/reactive/item/list).
+ * Run it with the gc profiler to compare the allocation rates as well:
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="ItemListStreamingBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ItemListStreamingBenchmark {
+
+    private static final int CACHE_SIZE = 1000;
+    private static final long CACHE_TTL_SECONDS = 300;
+    private static final int PAGE_SIZE = 500;
+
+    @Param({"10000", "100000"})
+    public int tableSize;
+
+    private BenchmarkDatabase database;
+    private SpeedmentApplication app;
+    private ItemHandler handler;
+    private ReactiveItemHandler reactiveHandler;
+    private ItemListResponseWriter responseWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start();
+        database.seed(tableSize);
+        app = database.createApplication();
+        ItemService service = database.createItemService(app);
+        handler = new ItemHandler(service, new ItemCache(CACHE_SIZE, CACHE_TTL_SECONDS), new ItemJsonFragments(service, new ObjectMapper()));
+        reactiveHandler = new ReactiveItemHandler(service, handler, PAGE_SIZE);
+        responseWriter = new ItemListResponseWriter(new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        app.stop();
+        database.stop();
+    }
+
+    @Benchmark
+    public List<ItemListModel> collectedList() {
+        return handler.getItemList();
+    }
+
+    @Benchmark
+    public void ndjsonStream(Blackhole blackhole) throws IOException {
+        handler.writeItemList(new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void fragmentResponse(Blackhole blackhole) throws IOException {
+        responseWriter.write(new BlackholeOutputStream(blackhole), handler.getItemJsonList(), null, null);
+    }
+
+    @Benchmark
+    public void reactiveFlux(Blackhole blackhole) {
+        reactiveHandler.getItemList().doOnNext(blackhole::consume).blockLast();
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemImpl;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.mapper.ItemMapper;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the mapping of database items to the API models, which is done for every item in a list response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemMapperBenchmark {
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        item = new ItemImpl()
+                .setId("0a8e4bc6-7c1c-4c8e-9a65-8d1f2c3e4b5a")
+                .setName("benchmark item")
+                .setLead("lead of the benchmark item")
+                .setItemType(GeneratedItem.ItemType.BOARDGAMES);
+    }
+
+    @Benchmark
+    public ItemListModel dbToListModel() {
+        return ItemMapper.INSTANCE.dbToListModel(item);
+    }
+
+    @Benchmark
+    public ItemModel dbToModel() {
+        return ItemMapper.INSTANCE.dbToModel(item);
+    }
+}
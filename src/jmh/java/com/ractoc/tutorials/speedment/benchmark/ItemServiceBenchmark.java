@@ -0,0 +1,85 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemImpl;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the ItemService against an embedded database, for growing table sizes. Point lookups and pages should
+ * not slow down when the table grows, only the full list should.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ItemServiceBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tableSize;
+
+    private final AtomicLong savedItems = new AtomicLong();
+    private BenchmarkDatabase database;
+    private SpeedmentApplication app;
+    private ItemService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start();
+        database.seed(tableSize);
+        app = database.createApplication();
+        service = database.createItemService(app);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        app.stop();
+        database.stop();
+    }
+
+    @Benchmark
+    public Item getItemById() {
+        return service.getItemById(database.getIds().get(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    @Benchmark
+    public Item getItemByName() {
+        return service.getItemByName(database.getNames().get(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    @Benchmark
+    public void getItemListPage(Blackhole blackhole) {
+        String after = database.getIds().get(ThreadLocalRandom.current().nextInt(tableSize));
+        try (Stream<Item> items = service.getItemList(after, PAGE_SIZE)) {
+            items.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void getItemList(Blackhole blackhole) {
+        try (Stream<Item> items = service.getItemList()) {
+            items.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public Item saveItem() {
+        Item item = new ItemImpl()
+                .setName("saved item " + savedItems.incrementAndGet())
+                .setLead("lead of a saved benchmark item")
+                .setItemType(GeneratedItem.ItemType.BOARDGAMES);
+        return service.saveItem(item);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import com.ractoc.tutorials.speedment.configuration.VirtualThreads;
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.service.ItemField;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares running a burst of concurrent, database bound requests on a fixed pool of platform threads (the Tomcat
+ * model, 200 worker threads by default) with running every request on its own virtual thread. In both cases the
+ * database access is bounded by the DatabaseAccessLimiter.
+ * <p>
+ * The sample time mode reports the percentiles of the time it takes to complete a whole burst. The virtual executor
+ * requires Java 21 or later, on older JVMs only the platform executor can be run:
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="RequestExecutionBenchmark -p executor=platform"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RequestExecutionBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"1000", "10000"})
+    public int concurrentRequests;
+
+    private BenchmarkDatabase database;
+    private SpeedmentApplication app;
+    private ItemService service;
+    private ExecutorService executorService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        executorService = "virtual".equals(executor)
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        database = BenchmarkDatabase.start();
+        database.seed(TABLE_SIZE);
+        app = database.createApplication();
+        service = database.createItemService(app);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        app.stop();
+        database.stop();
+    }
+
+    @Benchmark
+    public int requestBurst() {
+        List<CompletableFuture<Integer>> requests = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.add(CompletableFuture.supplyAsync(this::getItemListPage, executorService));
+        }
+        return requests.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private int getItemListPage() {
+        String after = database.getIds().get(ThreadLocalRandom.current().nextInt(TABLE_SIZE));
+        // a projected page, as the other pages are served from memory
+        List<Item> items = service.getItemList(after, PAGE_SIZE, null, EnumSet.of(ItemField.NAME));
+        return items.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ractoc.tutorials.speedment.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.response.ItemListResponse;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * Compares the encodings the item list response can be negotiated to: the indented JSON of debug mode, compact JSON,
+ * CBOR and Smile. The throughput shows the serialization cost, the payload size of every encoding is logged once
+ * at the start of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseEncodingBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseEncodingBenchmark.class);
+
+    @Param({"json-indented", "json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100", "10000"})
+    public int listSize;
+
+    private ObjectWriter writer;
+    private ItemListResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        writer = createBuilder().build().writer();
+        List<ItemListModel> items = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            items.add(ItemListModel.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name("benchmark item " + i)
+                    .itemType(GeneratedItem.ItemType.BOARDGAMES)
+                    .build());
+        }
+        response = new ItemListResponse(OK, items);
+        LOGGER.info("{} payload of {} items: {} bytes", format, listSize, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    private Jackson2ObjectMapperBuilder createBuilder() {
+        switch (format) {
+            case "json-indented":
+                return Jackson2ObjectMapperBuilder.json().indentOutput(true);
+            case "json":
+                return Jackson2ObjectMapperBuilder.json();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor();
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile();
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+}
@@ -3,10 +3,12 @@ package com.ractoc.tutorials.speedment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(
         exclude = SecurityAutoConfiguration.class,
         scanBasePackages = {"com.ractoc.tutorials.speedment"})
+@EnableScheduling
 public class MyCollectionRunner {
     public static void main(String[] args) {
         SpringApplication.run(MyCollectionRunner.class, args);
@@ -0,0 +1,191 @@
+package com.ractoc.tutorials.speedment.configuration;
+
+import com.speedment.common.injector.State;
+import com.speedment.common.injector.annotation.Config;
+import com.speedment.common.injector.annotation.ExecuteBefore;
+import com.speedment.common.injector.annotation.Inject;
+import com.speedment.runtime.config.Dbms;
+import com.speedment.runtime.core.component.DbmsHandlerComponent;
+import com.speedment.runtime.core.component.PasswordComponent;
+import com.speedment.runtime.core.component.connectionpool.ConnectionPoolComponent;
+import com.speedment.runtime.core.component.connectionpool.PoolableConnection;
+import com.speedment.runtime.core.exception.SpeedmentException;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Speedment connection pool backed by HikariCP, replacing the default pool of the Speedment application. A separate
+ * pool is created for every dbms (or url and user) the first time a connection is requested from it.
+ * <p>
+ * The pools are configured through the Speedment parameters in {@link #PARAMETER_PREFIX}, see the
+ * {@link SpeedmentConfiguration}. The pool metrics (active, idle and pending connections and the time it takes to
+ * acquire a connection) are published to the global Micrometer registry under hikaricp.connections.
+ */
+public class HikariConnectionPoolComponent implements ConnectionPoolComponent {
+
+    static final String PARAMETER_PREFIX = "connectionpool.hikari.";
+    static final String MIN_SIZE = PARAMETER_PREFIX + "minSize";
+    static final String MAX_SIZE = PARAMETER_PREFIX + "maxSize";
+    static final String ACQUISITION_TIMEOUT = PARAMETER_PREFIX + "acquisitionTimeout";
+    static final String VALIDATION_TIMEOUT = PARAMETER_PREFIX + "validationTimeout";
+    static final String MAX_AGE = PARAMETER_PREFIX + "maxAge";
+    static final String PREWARM = PARAMETER_PREFIX + "prewarm";
+    static final String REWRITE_BATCHED_STATEMENTS = PARAMETER_PREFIX + "rewriteBatchedStatements";
+
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+
+    @Inject
+    private DbmsHandlerComponent dbmsHandlerComponent;
+    @Inject
+    private PasswordComponent passwordComponent;
+
+    @Config(name = MIN_SIZE, value = "2")
+    private int minSize;
+    @Config(name = MAX_SIZE, value = "10")
+    private int maxSize;
+    @Config(name = ACQUISITION_TIMEOUT, value = "2000")
+    private long acquisitionTimeout;
+    @Config(name = VALIDATION_TIMEOUT, value = "1000")
+    private long validationTimeout;
+    @Config(name = MAX_AGE, value = "1800000")
+    private long maxAge;
+    @Config(name = PREWARM, value = "true")
+    private boolean prewarm;
+    @Config(name = REWRITE_BATCHED_STATEMENTS, value = "true")
+    private boolean rewriteBatchedStatements;
+
+    @ExecuteBefore(State.STOPPED)
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+        pools.clear();
+    }
+
+    @Override
+    public Connection getConnection(Dbms dbms) {
+        String url = dbms.getConnectionUrl().orElseGet(() -> dbmsHandlerComponent.findByName(dbms.getTypeName())
+                .orElseThrow(() -> new SpeedmentException("Unknown dbms type " + dbms.getTypeName()))
+                .getConnectionUrlGenerator()
+                .from(dbms));
+        String user = dbms.getUsername().orElse(null);
+        char[] password = passwordComponent.get(dbms).orElse(null);
+        return getConnection(url, user, password);
+    }
+
+    @Override
+    public Connection getConnection(String uri, String user, char[] password) {
+        try {
+            return newConnection(uri, user, password);
+        } catch (SQLException e) {
+            throw new SpeedmentException("Unable to acquire a connection for " + uri, e);
+        }
+    }
+
+    @Override
+    public void returnConnection(PoolableConnection connection) {
+        try {
+            // closing the connection returns it to the pool it was borrowed from
+            connection.close();
+        } catch (SQLException e) {
+            throw new SpeedmentException("Unable to return the connection to the pool", e);
+        }
+    }
+
+    @Override
+    public Connection newConnection(String uri, String user, char[] password) throws SQLException {
+        String key = uri + "#" + user;
+        HikariDataSource pool = pools.get(key);
+        if (pool == null) {
+            pool = createPool(key, uri, user, password);
+        }
+        return pool.getConnection();
+    }
+
+    @Override
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    @Override
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+        pools.values().forEach(pool -> pool.getHikariConfigMXBean().setMaxLifetime(maxAge));
+    }
+
+    @Override
+    public int getMaxRetainSize() {
+        return maxSize;
+    }
+
+    @Override
+    public void setMaxRetainSize(int maxRetainSize) {
+        this.maxSize = maxRetainSize;
+        pools.values().forEach(pool -> pool.getHikariConfigMXBean().setMaximumPoolSize(maxRetainSize));
+    }
+
+    @Override
+    public int poolSize() {
+        return pools.values().stream().mapToInt(pool -> pool.getHikariPoolMXBean().getIdleConnections()).sum();
+    }
+
+    @Override
+    public int leaseSize() {
+        return pools.values().stream().mapToInt(pool -> pool.getHikariPoolMXBean().getActiveConnections()).sum();
+    }
+
+    private synchronized HikariDataSource createPool(String key, String uri, String user, char[] password)
+            throws SQLException {
+        HikariDataSource existingPool = pools.get(key);
+        if (existingPool != null) {
+            return existingPool;
+        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("speedment-" + pools.size());
+        config.setJdbcUrl(uri);
+        config.setUsername(user);
+        config.setPassword(password == null ? null : new String(password));
+        config.setMinimumIdle(minSize);
+        config.setMaximumPoolSize(maxSize);
+        config.setConnectionTimeout(acquisitionTimeout);
+        // connections are validated with Connection.isValid before they are handed out
+        config.setValidationTimeout(validationTimeout);
+        config.setMaxLifetime(maxAge);
+        config.setMetricRegistry(Metrics.globalRegistry);
+        // lets the driver send a batch of inserts as a single multi-row INSERT
+        config.addDataSourceProperty("rewriteBatchedStatements", String.valueOf(rewriteBatchedStatements));
+        HikariDataSource pool = new HikariDataSource(config);
+        if (prewarm) {
+            try {
+                prewarm(pool);
+            } catch (SQLException | RuntimeException e) {
+                pool.close();
+                throw e;
+            }
+        }
+        pools.put(key, pool);
+        return pool;
+    }
+
+    /**
+     * Opens the minimum number of connections right away, so the first requests don't have to wait for them.
+     */
+    private void prewarm(HikariDataSource pool) throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < minSize; i++) {
+                connections.add(pool.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+}
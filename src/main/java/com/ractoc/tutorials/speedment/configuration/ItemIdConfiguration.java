@@ -0,0 +1,31 @@
+package com.ractoc.tutorials.speedment.configuration;
+
+import com.ractoc.tutorials.speedment.service.ItemIdGenerator;
+import com.ractoc.tutorials.speedment.service.RandomItemIdGenerator;
+import com.ractoc.tutorials.speedment.service.TimeOrderedItemIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ItemIdConfiguration {
+
+    private static final String RANDOM = "random";
+    private static final String TIME_ORDERED = "time-ordered";
+
+    @Value("${item.id.strategy}")
+    private String strategy;
+
+    @Bean
+    public ItemIdGenerator getItemIdGenerator() {
+        switch (strategy) {
+            case RANDOM:
+                return new RandomItemIdGenerator();
+            case TIME_ORDERED:
+                return new TimeOrderedItemIdGenerator();
+            default:
+                throw new IllegalArgumentException("Unknown item id strategy " + strategy
+                        + ", use either " + RANDOM + " or " + TIME_ORDERED);
+        }
+    }
+}
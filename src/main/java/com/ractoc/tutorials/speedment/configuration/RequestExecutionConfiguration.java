@@ -0,0 +1,34 @@
+package com.ractoc.tutorials.speedment.configuration;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in mode which handles every request on its own virtual thread instead of on the Tomcat worker pool, so requests
+ * blocked on the database no longer hold on to one of the platform threads. The number of concurrent database
+ * operations stays bounded by the DatabaseAccessLimiter.
+ */
+@Configuration
+@ConditionalOnProperty(name = "item.virtual-threads", havingValue = "true")
+public class RequestExecutionConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestExecutionConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            ProtocolHandler protocolHandler = connector.getProtocolHandler();
+            if (protocolHandler instanceof AbstractProtocol) {
+                LOGGER.info("handling requests on virtual threads");
+                ((AbstractProtocol<?>) protocolHandler).setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+            }
+        });
+    }
+}
@@ -3,14 +3,15 @@ package com.ractoc.tutorials.speedment.configuration;
 import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
 import com.ractoc.tutorials.speedment.db.SpeedmentApplicationBuilder;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemManager;
-import com.speedment.runtime.core.component.transaction.TransactionComponent;
-import com.speedment.runtime.core.component.transaction.TransactionHandler;
+import com.ractoc.tutorials.speedment.service.ItemSqlExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import static com.speedment.runtime.core.ApplicationBuilder.LogType.*;
 
@@ -33,11 +34,44 @@ public class SpeedmentConfiguration {
     private String collation;
     @Value("${dbms.collation.binary}")
     private String collationBinary;
+    @Value("${dbms.pool.min-size}")
+    private int poolMinSize;
+    @Value("${dbms.pool.max-size}")
+    private int poolMaxSize;
+    @Value("${dbms.pool.acquisition-timeout-ms}")
+    private long poolAcquisitionTimeout;
+    @Value("${dbms.pool.validation-timeout-ms}")
+    private long poolValidationTimeout;
+    @Value("${dbms.pool.max-age-ms}")
+    private long poolMaxAge;
+    @Value("${dbms.pool.prewarm}")
+    private boolean poolPrewarm;
+    @Value("${dbms.pool.rewrite-batched-statements}")
+    private boolean poolRewriteBatchedStatements;
     @Value("${debug}")
     private boolean debug;
+    @Value("${spring.jackson.serialization.indent-output}")
+    private boolean indentOutput;
 
     @Bean
     public SpeedmentApplication getSpeedmentApplication() {
+        SpeedmentApplicationBuilder builder = new SpeedmentApplicationBuilder()
+                .withIpAddress(host)
+                .withPort(port)
+                .withUsername(username)
+                .withPassword(password)
+                .withSchema(schema)
+                .withParam("db.mysql.collationName", collation)
+                .withParam("db.mysql.binaryCollationName", collationBinary)
+                .withComponent(HikariConnectionPoolComponent.class)
+                .withParam(HikariConnectionPoolComponent.MIN_SIZE, String.valueOf(poolMinSize))
+                .withParam(HikariConnectionPoolComponent.MAX_SIZE, String.valueOf(poolMaxSize))
+                .withParam(HikariConnectionPoolComponent.ACQUISITION_TIMEOUT, String.valueOf(poolAcquisitionTimeout))
+                .withParam(HikariConnectionPoolComponent.VALIDATION_TIMEOUT, String.valueOf(poolValidationTimeout))
+                .withParam(HikariConnectionPoolComponent.MAX_AGE, String.valueOf(poolMaxAge))
+                .withParam(HikariConnectionPoolComponent.PREWARM, String.valueOf(poolPrewarm))
+                .withParam(HikariConnectionPoolComponent.REWRITE_BATCHED_STATEMENTS,
+                        String.valueOf(poolRewriteBatchedStatements));
         if (debug) {
             LOGGER.debug("connection parameters");
             LOGGER.debug("host: {}", host);
@@ -45,43 +79,38 @@ public class SpeedmentConfiguration {
             LOGGER.debug("schema: {}", schema);
             LOGGER.debug("collation: {}", collation);
             LOGGER.debug("collationBinary: {}", collationBinary);
-            return new SpeedmentApplicationBuilder()
-                    .withIpAddress(host)
-                    .withPort(port)
-                    .withUsername(username)
-                    .withPassword(password)
-                    .withSchema(schema)
-                    .withParam("db.mysql.collationName", collation)
-                    .withParam("db.mysql.binaryCollationName", collationBinary)
-                    .withLogging(STREAM)
+            LOGGER.debug("connection pool size: {} - {}", poolMinSize, poolMaxSize);
+            builder.withLogging(STREAM)
                     .withLogging(REMOVE)
                     .withLogging(PERSIST)
-                    .withLogging(UPDATE)
-                    .build();
+                    .withLogging(UPDATE);
         }
-        return new SpeedmentApplicationBuilder()
-                .withIpAddress(host)
-                .withPort(port)
-                .withUsername(username)
-                .withPassword(password)
-                .withSchema(schema)
-                .withParam("db.mysql.collationName", collation)
-                .withParam("db.mysql.binaryCollationName", collationBinary)
-                .build();
+        return builder.build();
     }
 
     @Bean
-    public TransactionHandler getTransactionHandler(SpeedmentApplication app) {
-        return app.getOrThrow(TransactionComponent.class).createTransactionHandler();
+    public ItemManager getItemsManager(SpeedmentApplication app) {
+        return app.getOrThrow(ItemManager.class);
     }
 
     @Bean
-    public ItemManager getItemsManager(SpeedmentApplication app) {
-        return app.getOrThrow(ItemManager.class);
+    public ItemSqlExecutor getItemSqlExecutor(SpeedmentApplication app) {
+        return new ItemSqlExecutor(app);
     }
 
     @Bean
     public Jackson2ObjectMapperBuilder jacksonBuilder() {
-        return new Jackson2ObjectMapperBuilder().indentOutput(true);
+        // this builder replaces the one of Spring Boot, so the indent setting is applied here
+        return new Jackson2ObjectMapperBuilder().indentOutput(indentOutput);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborConverter() {
+        return new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile().build());
     }
 }
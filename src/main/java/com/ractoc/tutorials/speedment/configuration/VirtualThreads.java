@@ -0,0 +1,51 @@
+package com.ractoc.tutorials.speedment.configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads, which are only available when running on Java 21 or later. The application itself is
+ * compiled for Java 8, so the executor is looked up at runtime.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory().orElse(null);
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor which runs every task on a new virtual thread.
+     *
+     * @return The new executor.
+     * @throws IllegalStateException When virtual threads are not available on the running JVM.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on Java "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to create a virtual thread executor", e);
+        }
+    }
+
+    private static Optional<MethodHandle> findFactory() {
+        try {
+            return Optional.of(MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class)));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return Optional.empty();
+        }
+    }
+}
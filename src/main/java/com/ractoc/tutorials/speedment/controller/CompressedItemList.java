@@ -0,0 +1,86 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.ractoc.tutorials.speedment.handler.ItemHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the full item list response as gzip or deflate compressed JSON. The list is the same for every caller until the next
+ * write, so it is assembled and compressed once, and every request after that only copies the bytes. The response is
+ * assembled from the cached JSON of the items by the {@link ItemListResponseWriter}, so a rebuild only serializes the
+ * items that changed.
+ * <p>
+ * The payload is tagged with the change count of the {@link ItemHandler}. Every write increments the count, after which
+ * the next request rebuilds the payload. Each content coding is built and cached on its own, when it is first asked for.
+ */
+@Component
+public class CompressedItemList {
+
+    public static final String GZIP = "gzip";
+    // the zlib format, as HTTP defines deflate
+    public static final String DEFLATE = "deflate";
+
+    private final ItemHandler itemHandler;
+    private final ItemListResponseWriter responseWriter;
+    private final Map<String, Payload> payloads = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CompressedItemList(ItemHandler itemHandler, ItemListResponseWriter responseWriter) {
+        this.itemHandler = itemHandler;
+        this.responseWriter = responseWriter;
+    }
+
+    /**
+     * Returns the compressed list as of the supplied change count, building it when the cached one is older.
+     *
+     * @param changeCount The change count read before the list is needed, as used for the entity tag of the list.
+     * @param coding      The content coding to compress the list with, {@link #GZIP} or {@link #DEFLATE}.
+     * @return The compressed JSON of the full item list response.
+     */
+    public byte[] get(long changeCount, String coding) {
+        Payload current = payloads.get(coding);
+        if (current != null && current.changeCount >= changeCount) {
+            return current.bytes;
+        }
+        synchronized (this) {
+            current = payloads.get(coding);
+            if (current == null || current.changeCount < changeCount) {
+                // a write during the build at worst labels a newer list with an older count, causing an extra rebuild
+                current = new Payload(changeCount, compress(coding));
+                payloads.put(coding, current);
+            }
+            return current.bytes;
+        }
+    }
+
+    private byte[] compress(String coding) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream compressed = DEFLATE.equals(coding)
+                ? new DeflaterOutputStream(bytes)
+                : new GZIPOutputStream(bytes)) {
+            responseWriter.write(compressed, itemHandler.getItemJsonList(), null, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compress the item list", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class Payload {
+        private final long changeCount;
+        private final byte[] bytes;
+
+        private Payload(long changeCount, byte[] bytes) {
+            this.changeCount = changeCount;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -1,27 +1,59 @@
 package com.ractoc.tutorials.speedment.controller;
 
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.handler.ItemEventBroadcaster;
 import com.ractoc.tutorials.speedment.handler.ItemHandler;
+import com.ractoc.tutorials.speedment.handler.ItemJsonPage;
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
 import com.ractoc.tutorials.speedment.model.ItemModel;
 import com.ractoc.tutorials.speedment.model.GetItemForm;
 import com.ractoc.tutorials.speedment.response.BaseResponse;
+import com.ractoc.tutorials.speedment.response.CacheStatisticsResponse;
+import com.ractoc.tutorials.speedment.response.DeleteResponse;
 import com.ractoc.tutorials.speedment.response.ErrorResponse;
+import com.ractoc.tutorials.speedment.response.ItemBatchResponse;
+import com.ractoc.tutorials.speedment.response.ItemChangesResponse;
 import com.ractoc.tutorials.speedment.response.ItemListResponse;
 import com.ractoc.tutorials.speedment.response.ItemResponse;
+import com.ractoc.tutorials.speedment.response.ItemStatisticsResponse;
 import com.ractoc.tutorials.speedment.service.DuplicateEntryException;
+import com.ractoc.tutorials.speedment.service.ExpiredChangeTokenException;
+import com.ractoc.tutorials.speedment.service.ItemField;
 import com.ractoc.tutorials.speedment.service.NoSuchEntryException;
 import com.ractoc.tutorials.speedment.service.ServiceException;
+import com.ractoc.tutorials.speedment.service.StaleEntryException;
 import com.ractoc.tutorials.speedment.validators.UuidPattern;
 import io.swagger.annotations.*;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 @RestController
 @Api(tags = {"Item Resource"}, value = "/item", produces = "application/json")
@@ -34,39 +66,218 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @Validated
 public class ItemController {
 
+    private static final long MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_SEARCH_RESULTS = 100;
+    static final int MAX_QUERY_LENGTH = 100;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    // compact binary encodings of the JSON responses, for service to service callers
+    private static final String APPLICATION_CBOR_VALUE = "application/cbor";
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private static final String BINARY_AND_JSON = APPLICATION_JSON_VALUE + ", " + APPLICATION_CBOR_VALUE + ", " + APPLICATION_SMILE_VALUE;
+    // the list is negotiated on both the media type and the content encoding, whichever branch answers the request
+    private static final String[] LIST_VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+    private static final Map<MediaType, String> REPRESENTATIONS = new LinkedHashMap<>();
+    private static final String AFTER_WITHOUT_LIMIT = "The after cursor can only be used together with limit.";
+    private static final String UNSUPPORTED_FIELDS = "Unsupported field, the supported fields are %s.";
+
+    static {
+        REPRESENTATIONS.put(MediaType.APPLICATION_JSON, ItemETags.JSON);
+        REPRESENTATIONS.put(MediaType.valueOf(APPLICATION_CBOR_VALUE), ItemETags.CBOR);
+        REPRESENTATIONS.put(MediaType.valueOf(APPLICATION_SMILE_VALUE), ItemETags.SMILE);
+    }
+
     private final ItemHandler itemHandler;
+    private final ItemEventBroadcaster eventBroadcaster;
+    private final CompressedItemList compressedItemList;
+    private final ItemListResponseWriter responseWriter;
 
     @Autowired
-    public ItemController(ItemHandler itemHandler) {
+    public ItemController(ItemHandler itemHandler, ItemEventBroadcaster eventBroadcaster,
+                          CompressedItemList compressedItemList, ItemListResponseWriter responseWriter) {
         this.itemHandler = itemHandler;
+        this.eventBroadcaster = eventBroadcaster;
+        this.compressedItemList = compressedItemList;
+        this.responseWriter = responseWriter;
+    }
+
+    @ApiOperation(value = "Get list of items", response = ItemListResponse.class, produces = BINARY_AND_JSON)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Retrieval successfully processed. This does not always mean tasks were found.", response = ItemListResponse.class),
+            @ApiResponse(code = 304, message = "The list did not change since the ETag in If-None-Match"),
+            @ApiResponse(code = 400, message = "One of the fields is not supported, or after is supplied without limit", response = ErrorResponse.class)
+    })
+    @GetMapping(value = "/list", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> getItemList(
+            @ApiParam(value = "The maximum number of items on the page. When omitted, all items are returned.")
+            @RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+            @ApiParam(value = "The cursor returned as nextCursor with the previous page. Only valid together with limit.")
+            @RequestParam(required = false) String after,
+            @ApiParam(value = "The types of the items to return. When omitted, items of all types are returned.")
+            @RequestParam(required = false) Set<GeneratedItem.ItemType> type,
+            @ApiParam(value = "The fields of the items to return, out of id, name and itemType. When omitted, all fields "
+                    + "are returned. The id is always returned.")
+            @RequestParam(required = false) Set<String> fields,
+            @ApiParam(value = "The ETag of the list the client already has.")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @ApiParam(value = "The media types the client accepts.")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @ApiParam(value = "The content encodings the client accepts.")
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Set<ItemField> selectedFields = null;
+        if (fields != null && !fields.isEmpty()) {
+            Optional<Set<ItemField>> parsedFields = ItemFields.parse(fields, ItemFields.LIST_FIELDS);
+            if (!parsedFields.isPresent()) {
+                return new ResponseEntity<>(new ErrorResponse(BAD_REQUEST,
+                        String.format(UNSUPPORTED_FIELDS, ItemFields.describe(ItemFields.LIST_FIELDS))), BAD_REQUEST);
+            }
+            selectedFields = parsedFields.get();
+        }
+        if (after != null && limit == null) {
+            // without a limit the whole list is returned, which has no cursor to continue from
+            return new ResponseEntity<>(new ErrorResponse(BAD_REQUEST, AFTER_WITHOUT_LIMIT), BAD_REQUEST);
+        }
+        // read the change count before the list, a write in between then at worst causes an extra download later on
+        long changeCount = itemHandler.getChangeCount();
+        boolean allTypes = type == null || type.isEmpty();
+        String representation = negotiate(accept);
+        boolean json = ItemETags.JSON.equals(representation);
+        // the full JSON list is served pre-compressed, the server compression only sees the other responses
+        String coding = selectedFields == null && limit == null && allTypes && json
+                ? negotiateCoding(acceptEncoding)
+                : null;
+        boolean compressed = coding != null;
+        String eTag = compressed
+                ? ItemETags.ofCompressedList(changeCount, coding)
+                : ItemETags.ofList(changeCount, representation);
+        if (ifNoneMatch != null && ItemETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(NOT_MODIFIED).eTag(eTag).varyBy(LIST_VARY).build();
+        }
+        if (compressed) {
+            // already compressed, so the server compression leaves it alone
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, coding)
+                    .varyBy(LIST_VARY)
+                    .body(compressedItemList.get(changeCount, coding));
+        }
+        if (selectedFields == null && json) {
+            // JSON is copied from the cached JSON of the items, instead of mapping and serializing every item again
+            if (limit == null) {
+                return jsonList(eTag, allTypes ? itemHandler.getItemJsonList() : itemHandler.getItemJsonList(type),
+                        null, null);
+            }
+            ItemJsonPage page = itemHandler.getItemJsonPage(after, limit, type);
+            long totalCount = allTypes ? itemHandler.getItemCount() : itemHandler.getItemCount(type);
+            return jsonList(eTag, page.getItems(), page.getNextCursor(), totalCount);
+        }
+        if (limit == null) {
+            List<ItemListModel> itemList;
+            if (selectedFields != null) {
+                itemList = selectFields(itemHandler.getItemList(null, Long.MAX_VALUE, type, selectedFields), selectedFields);
+            } else {
+                itemList = allTypes ? itemHandler.getItemList() : itemHandler.getItemList(type);
+            }
+            return ResponseEntity.ok().eTag(eTag).varyBy(LIST_VARY).body(new ItemListResponse(OK, itemList));
+        }
+        // fetch one extra item to find out if there is a next page
+        List<ItemListModel> itemList;
+        if (selectedFields != null) {
+            itemList = selectFields(itemHandler.getItemList(after, limit + 1, type, selectedFields), selectedFields);
+        } else {
+            itemList = allTypes
+                    ? itemHandler.getItemList(after, limit + 1)
+                    : itemHandler.getItemList(after, limit + 1, type);
+        }
+        String nextCursor = null;
+        if (itemList.size() > limit) {
+            itemList = itemList.subList(0, limit);
+            nextCursor = itemList.get(limit - 1).getId();
+        }
+        long totalCount = allTypes ? itemHandler.getItemCount() : itemHandler.getItemCount(type);
+        return ResponseEntity.ok().eTag(eTag).varyBy(LIST_VARY).body(
+                new ItemListResponse(OK, itemList, nextCursor, totalCount));
     }
 
-    @ApiOperation(value = "Get list of items", response = ItemListResponse.class, produces = "application/json")
+    private ResponseEntity<StreamingResponseBody> jsonList(String eTag, List<byte[]> items, String nextCursor,
+                                                           Long totalCount) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(LIST_VARY)
+                .body(outputStream -> responseWriter.write(outputStream, items, nextCursor, totalCount));
+    }
+
+    @ApiOperation(value = "Stream all items as newline delimited JSON", produces = APPLICATION_NDJSON_VALUE)
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "Retrieval successfully processed. This does not always mean tasks were found.", response = ItemListResponse.class)
+            @ApiResponse(code = 200, message = "Retrieval successfully processed. Each line of the body contains a single item.")
     })
-    @GetMapping(value = "/list", produces = APPLICATION_JSON_VALUE)
-    public ResponseEntity<BaseResponse> getItemList() {
-        return new ResponseEntity<>(
-                new ItemListResponse(OK, itemHandler.getItemList()), OK);
+    @GetMapping(value = "/list/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemList() {
+        return new ResponseEntity<>(itemHandler::writeItemList, OK);
     }
 
-    @ApiOperation(value = "Get the item by id", response = ItemListResponse.class, produces = "application/json")
+    @ApiOperation(value = "Search the names and leads of the items", response = ItemListResponse.class, produces = BINARY_AND_JSON)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Search successfully processed. This does not always mean items were found.", response = ItemListResponse.class)
+    })
+    @GetMapping(value = "/search", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BaseResponse> searchItems(
+            @ApiParam(value = "The words to search for, every word has to match the start of a word in the name or lead.", required = true)
+            @RequestParam @NotBlank @Size(max = MAX_QUERY_LENGTH) String q,
+            @ApiParam(value = "The maximum number of items to return, the best matches come first.")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_SEARCH_RESULTS) int limit) {
+        return new ResponseEntity<>(new ItemListResponse(OK, itemHandler.searchItems(q, limit)), OK);
+    }
+
+    @ApiOperation(value = "Get the item by id", response = ItemListResponse.class, produces = BINARY_AND_JSON)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Retrieval successfully processed.", response = ItemListResponse.class),
+            @ApiResponse(code = 304, message = "The item did not change since the ETag in If-None-Match"),
+            @ApiResponse(code = 400, message = "One of the fields is not supported", response = ErrorResponse.class),
             @ApiResponse(code = 404, message = "The item does not exist", response = ErrorResponse.class),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    @GetMapping(value = "", produces = APPLICATION_JSON_VALUE)
-    public ResponseEntity<BaseResponse> getItem(@Valid GetItemForm form) {
+    @GetMapping(value = "", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BaseResponse> getItem(
+            @Valid GetItemForm form,
+            @ApiParam(value = "The fields of the item to return, out of id, name, lead, itemType and version. When "
+                    + "omitted, all fields are returned. The id is always returned.")
+            @RequestParam(required = false) Set<String> fields,
+            @ApiParam(value = "The ETag of the item the client already has.")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @ApiParam(value = "The media types the client accepts.")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Set<ItemField> selectedFields = null;
+        if (fields != null && !fields.isEmpty()) {
+            Optional<Set<ItemField>> parsedFields = ItemFields.parse(fields, ItemFields.ITEM_FIELDS);
+            if (!parsedFields.isPresent()) {
+                return new ResponseEntity<>(new ErrorResponse(BAD_REQUEST,
+                        String.format(UNSUPPORTED_FIELDS, ItemFields.describe(ItemFields.ITEM_FIELDS))), BAD_REQUEST);
+            }
+            selectedFields = parsedFields.get();
+        }
+        String representation = negotiate(accept);
         try {
+            if (ifNoneMatch != null) {
+                Optional<String> eTag = getCurrentETag(form, representation);
+                if (eTag.isPresent() && ItemETags.matches(ifNoneMatch, eTag.get())) {
+                    return ResponseEntity.status(NOT_MODIFIED).eTag(eTag.get()).varyBy(HttpHeaders.ACCEPT).build();
+                }
+            }
+            ItemModel item;
             if (StringUtils.isNotEmpty(form.getId())) {
-                return new ResponseEntity<>(
-                        new ItemResponse(OK, itemHandler.getItemById(form.getId())), OK);
+                item = itemHandler.getItemById(form.getId());
             } else {
-                return new ResponseEntity<>(
-                        new ItemResponse(OK, itemHandler.getItemByName(form.getName())), OK);
+                item = itemHandler.getItemByName(form.getName());
             }
+            // the tag is taken from the full item, it identifies the version whatever fields are sent
+            String eTag = ItemETags.of(item, representation);
+            if (selectedFields != null) {
+                item = ItemFields.select(item, selectedFields);
+            }
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(new ItemResponse(OK, item));
         } catch (NoSuchEntryException e) {
             return new ResponseEntity<>(new ErrorResponse(NOT_FOUND, e.getMessage()), NOT_FOUND);
         } catch (ServiceException e) {
@@ -74,13 +285,23 @@ public class ItemController {
         }
     }
 
-    @ApiOperation(value = "Create a new item", response = ItemResponse.class, consumes = "application/json", produces = "application/json")
+    private Optional<String> getCurrentETag(GetItemForm form, String representation) {
+        Optional<String> id = StringUtils.isNotEmpty(form.getId())
+                ? Optional.of(form.getId())
+                : itemHandler.getItemIdByName(form.getName());
+        return id.flatMap(itemId -> {
+            OptionalInt version = itemHandler.getItemVersionById(itemId);
+            return version.isPresent() ? Optional.of(ItemETags.of(itemId, version.getAsInt(), representation)) : Optional.empty();
+        });
+    }
+
+    @ApiOperation(value = "Create a new item", response = ItemResponse.class, consumes = "application/json", produces = BINARY_AND_JSON)
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "The item was successfully created", response = ItemResponse.class),
             @ApiResponse(code = 400, message = "Unable to create item, see body for more information", response = ErrorResponse.class),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    @PostMapping(value = "", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @PostMapping(value = "", consumes = APPLICATION_JSON_VALUE, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<BaseResponse> createItem(@Valid @RequestBody ItemModel item) {
         try {
             if (StringUtils.isNotBlank(item.getId())) {
@@ -94,29 +315,146 @@ public class ItemController {
         }
     }
 
-    @ApiOperation(value = "Update an existing item", response = ItemResponse.class, consumes = "application/json", produces = "application/json")
+    @ApiOperation(value = "Create a batch of new items", response = ItemBatchResponse.class, consumes = "application/json", produces = BINARY_AND_JSON)
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "All items were successfully created", response = ItemBatchResponse.class),
+            @ApiResponse(code = 400, message = "Unable to create the items, none of them were created, see body for more information", response = ErrorResponse.class),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    @PostMapping(value = "/batch", consumes = APPLICATION_JSON_VALUE, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BaseResponse> createItems(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid ItemModel> items) {
+        try {
+            if (items.stream().anyMatch(item -> StringUtils.isNotBlank(item.getId()))) {
+                return new ResponseEntity<>(new ErrorResponse(UNPROCESSABLE_ENTITY, "No ID allowed when creating new items."), BAD_REQUEST);
+            }
+            return new ResponseEntity<>(new ItemBatchResponse(CREATED, itemHandler.saveItems(items)), OK);
+        } catch (DuplicateEntryException e) {
+            return new ResponseEntity<>(new ErrorResponse(CONFLICT, e.getMessage()), BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>(new ErrorResponse(INTERNAL_SERVER_ERROR, e.getMessage()), INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @ApiOperation(value = "Update an existing item", response = ItemResponse.class, consumes = "application/json", produces = BINARY_AND_JSON)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "The item was updated", response = ItemResponse.class),
             @ApiResponse(code = 404, message = "The item does not exist", response = ErrorResponse.class),
             @ApiResponse(code = 400, message = "Unable to update item, see body for more information", response = ErrorResponse.class),
+            @ApiResponse(code = 412, message = "The item was changed since the version in If-Match or in the body", response = ErrorResponse.class),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    @PutMapping(value = "", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
-    public ResponseEntity<BaseResponse> updateItem(@Valid @RequestBody ItemModel item) {
+    @PutMapping(value = "", consumes = APPLICATION_JSON_VALUE, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BaseResponse> updateItem(
+            @Valid @RequestBody ItemModel item,
+            @ApiParam(value = "The ETag of the item the update is based on.")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @ApiParam(value = "The media types the client accepts.")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             if (StringUtils.isBlank(item.getId())) {
                 return new ResponseEntity<>(new ErrorResponse(UNPROCESSABLE_ENTITY, "ID mandatory when updating items."), BAD_REQUEST);
             }
-            return new ResponseEntity<>(new ItemResponse(MOVED_PERMANENTLY, itemHandler.updateItem(item)), OK);
+            if (ifMatch != null && !ItemETags.ANY.equals(ifMatch.trim())) {
+                OptionalInt version = ItemETags.parseVersion(ifMatch, item.getId());
+                if (!version.isPresent()) {
+                    return new ResponseEntity<>(new ErrorResponse(PRECONDITION_FAILED, "If-Match does not match item " + item.getId()), PRECONDITION_FAILED);
+                }
+                item.setVersion(version.getAsInt());
+            }
+            ItemModel updatedItem = itemHandler.updateItem(item);
+            return ResponseEntity.ok()
+                    .eTag(ItemETags.of(updatedItem, negotiate(accept)))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(new ItemResponse(MOVED_PERMANENTLY, updatedItem));
         } catch (NoSuchEntryException e) {
             return new ResponseEntity<>(new ErrorResponse(NOT_FOUND, e.getMessage()), NOT_FOUND);
         } catch (DuplicateEntryException e) {
             return new ResponseEntity<>(new ErrorResponse(CONFLICT, e.getMessage()), BAD_REQUEST);
+        } catch (StaleEntryException e) {
+            return new ResponseEntity<>(new ErrorResponse(PRECONDITION_FAILED, e.getMessage()), PRECONDITION_FAILED);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>(new ErrorResponse(INTERNAL_SERVER_ERROR, e.getMessage()), INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @ApiOperation(value = "removes multiple items", response = DeleteResponse.class, produces = "application/json")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Deletion successfully processed.", response = DeleteResponse.class),
+            @ApiResponse(code = 400, message = "Either ids or itemType should be supplied, never none, never both.", response = ErrorResponse.class),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    @DeleteMapping(value = "", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<BaseResponse> deleteItems(
+            @ApiParam(value = "The ids of the items to remove.")
+            @RequestParam(required = false)
+            List<@Pattern(regexp = UuidPattern.REGEXP, message = UuidPattern.MESSAGE) String> ids,
+            @ApiParam(value = "The type of the items to remove.")
+            @RequestParam(required = false) GeneratedItem.ItemType itemType) {
+        try {
+            if ((ids == null) == (itemType == null)) {
+                return new ResponseEntity<>(new ErrorResponse(UNPROCESSABLE_ENTITY, "Either ids or itemType should have a value, never none, never both."), BAD_REQUEST);
+            }
+            int deleted = ids != null ? itemHandler.deleteItems(ids) : itemHandler.deleteItemsByType(itemType);
+            return new ResponseEntity<>(new DeleteResponse(GONE, deleted), OK);
         } catch (ServiceException e) {
             return new ResponseEntity<>(new ErrorResponse(INTERNAL_SERVER_ERROR, e.getMessage()), INTERNAL_SERVER_ERROR);
         }
     }
 
+    @ApiOperation(value = "Get the item changes after a token", response = ItemChangesResponse.class, produces = BINARY_AND_JSON)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Retrieval successfully processed. This does not always mean changes were found.", response = ItemChangesResponse.class),
+            @ApiResponse(code = 410, message = "The changes after the token are no longer available, reload the item list.", response = ErrorResponse.class)
+    })
+    @GetMapping(value = "/changes", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BaseResponse> getChanges(
+            @ApiParam(value = "The nextToken of the previous changes. When omitted, only the current token is returned, "
+                    + "fetch it before loading the item list.")
+            @RequestParam(required = false) @Min(0) Long since,
+            @ApiParam(value = "The maximum number of changes to return.")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        try {
+            if (since == null) {
+                return new ResponseEntity<>(new ItemChangesResponse(OK, Collections.emptyList(), itemHandler.getLatestChangeToken()), OK);
+            }
+            List<ItemChangeModel> changes = itemHandler.getChanges(since, limit);
+            long nextToken = changes.isEmpty() ? since : changes.get(changes.size() - 1).getToken();
+            return new ResponseEntity<>(new ItemChangesResponse(OK, changes, nextToken), OK);
+        } catch (ExpiredChangeTokenException e) {
+            return new ResponseEntity<>(new ErrorResponse(GONE, e.getMessage()), GONE);
+        }
+    }
+
+    @ApiOperation(value = "Stream the item changes as server-sent events", produces = TEXT_EVENT_STREAM_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Subscribed. Every event contains a single change, its id is the token to pass to /item/changes after reconnecting."),
+            @ApiResponse(code = 503, message = "The maximum number of subscribers is reached.")
+    })
+    @GetMapping(value = "/events", produces = TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getEvents() {
+        return eventBroadcaster.subscribe()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(SERVICE_UNAVAILABLE).build());
+    }
+
+    @ApiOperation(value = "Get the number of items, in total and per item type", response = ItemStatisticsResponse.class, produces = "application/json")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Retrieval successfully processed.", response = ItemStatisticsResponse.class)
+    })
+    @GetMapping(value = "/stats", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<BaseResponse> getItemStatistics() {
+        return new ResponseEntity<>(new ItemStatisticsResponse(OK, itemHandler.getItemStatistics()), OK);
+    }
+
+    @ApiOperation(value = "Get the usage counters of the item cache", response = CacheStatisticsResponse.class, produces = "application/json")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Retrieval successfully processed.", response = CacheStatisticsResponse.class)
+    })
+    @GetMapping(value = "/cache/statistics", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<BaseResponse> getCacheStatistics() {
+        return new ResponseEntity<>(new CacheStatisticsResponse(OK, itemHandler.getCacheStatistics()), OK);
+    }
+
     @ApiOperation(value = "removes an item", response = BaseResponse.class, produces = "application/json")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Deletion successfully processed.", response = BaseResponse.class)
@@ -131,4 +469,64 @@ public class ItemController {
         }
     }
 
+    private static List<ItemListModel> selectFields(List<ItemListModel> items, Set<ItemField> fields) {
+        return items.stream().map(item -> ItemFields.select(item, fields)).collect(Collectors.toList());
+    }
+
+    /**
+     * Picks the content coding of the pre-compressed list, gzip when the client accepts it and deflate otherwise.
+     *
+     * @param acceptEncoding The Accept-Encoding header of the request.
+     * @return The content coding, or null when the client accepts neither.
+     */
+    private static String negotiateCoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            // a quality of zero means the client refuses the coding
+            boolean accepted = parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            if (accepted && CompressedItemList.GZIP.equalsIgnoreCase(name)) {
+                return CompressedItemList.GZIP;
+            }
+            deflate |= accepted && CompressedItemList.DEFLATE.equalsIgnoreCase(name);
+        }
+        return deflate ? CompressedItemList.DEFLATE : null;
+    }
+
+    /**
+     * Finds the representation the regular content negotiation picks for the item responses, to tag the response with.
+     * The produced media types are tried in the order they are declared in, JSON first.
+     *
+     * @param accept The Accept header of the request.
+     * @return The representation, or null when none of the produced media types is acceptable.
+     */
+    private static String negotiate(String accept) {
+        if (StringUtils.isBlank(accept)) {
+            return ItemETags.JSON;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            // a quality of zero means the client refuses the media type, even when a wildcard includes it
+            List<MediaType> refused = mediaTypes.stream()
+                    .filter(mediaType -> mediaType.getQualityValue() == 0)
+                    .collect(Collectors.toList());
+            for (MediaType mediaType : mediaTypes) {
+                for (Map.Entry<MediaType, String> produced : REPRESENTATIONS.entrySet()) {
+                    if (mediaType.getQualityValue() > 0 && mediaType.includes(produced.getKey())
+                            && refused.stream().noneMatch(refusedType -> refusedType.includes(produced.getKey()))) {
+                        return produced.getValue();
+                    }
+                }
+            }
+            return null;
+        } catch (InvalidMediaTypeException e) {
+            // leave the rejection to the regular content negotiation
+            return null;
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.ractoc.tutorials.speedment.model.ItemModel;
+
+import java.util.OptionalInt;
+
+/**
+ * Creates and parses the entity tags of single items. The tag of an item consists of its id and its version,
+ * so it changes with every update of the item.
+ * <p>
+ * The JSON, CBOR and Smile encodings of an item or list are different representations, with different bytes, so the
+ * binary encodings add their name to the tag. A client that switches encodings then never gets a 304 for a body it
+ * only has in another encoding.
+ * <p>
+ * Tomcat does not compress a response with a strong tag, as the compressed bytes would no longer be the bytes the tag
+ * stands for. The tags of the responses the server may compress are therefore weak: the body is the same whether it is
+ * sent compressed or not. Only the pre-compressed list, which the server leaves alone, has a strong tag per coding.
+ */
+final class ItemETags {
+
+    static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final char QUOTE = '"';
+    private static final char SEPARATOR = '-';
+
+    // the representations the item responses are encoded in, JSON keeps the plain tag
+    static final String JSON = "";
+    static final String CBOR = "cbor";
+    static final String SMILE = "smile";
+
+    // the change count starts at 0 with every restart, so the list tags need something to tell restarts apart
+    private static final String LIST_GENERATION = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private ItemETags() {
+        // utility class
+    }
+
+    static String of(ItemModel item, String representation) {
+        return of(item.getId(), item.getVersion() == null ? 0 : item.getVersion(), representation);
+    }
+
+    static String of(String id, int version, String representation) {
+        return WEAK_PREFIX + QUOTE + id + SEPARATOR + version + suffix(representation) + QUOTE;
+    }
+
+    static String ofList(long changeCount, String representation) {
+        return WEAK_PREFIX + listTag(changeCount, representation);
+    }
+
+    /**
+     * The compressed list is a representation of its own, with bytes of its own, so it gets a tag of its own for every
+     * content coding.
+     */
+    static String ofCompressedList(long changeCount, String coding) {
+        return listTag(changeCount, coding);
+    }
+
+    private static String listTag(long changeCount, String representation) {
+        return QUOTE + "list-" + LIST_GENERATION + SEPARATOR + changeCount + suffix(representation) + QUOTE;
+    }
+
+    private static String suffix(String representation) {
+        return representation == null || representation.isEmpty() ? "" : SEPARATOR + representation;
+    }
+
+    /**
+     * Checks if the current entity tag of a resource matches one of the tags in an If-None-Match header.
+     * As prescribed for If-None-Match, weak tags are compared as if they were strong tags.
+     *
+     * @param ifNoneMatch The value of the If-None-Match header.
+     * @param eTag        The current entity tag of the resource.
+     * @return true if the client already has the current version of the resource.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        String current = stripWeakPrefix(eTag);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = stripWeakPrefix(tag.trim());
+            if (ANY.equals(candidate) || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    /**
+     * Extracts the version from the entity tag of the item with the supplied id, whatever representation the tag was
+     * sent with.
+     *
+     * @param eTag The entity tag, as sent in an If-Match or If-None-Match header.
+     * @param id   The id of the item the tag should belong to.
+     * @return The version contained in the tag, or empty when the tag does not belong to the item.
+     */
+    static OptionalInt parseVersion(String eTag, String id) {
+        String tag = stripWeakPrefix(eTag.trim());
+        String prefix = QUOTE + id + SEPARATOR;
+        if (tag.length() <= prefix.length() + 1 || !tag.regionMatches(true, 0, prefix, 0, prefix.length())
+                || tag.charAt(tag.length() - 1) != QUOTE) {
+            return OptionalInt.empty();
+        }
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        int representation = version.indexOf(SEPARATOR);
+        if (representation >= 0) {
+            version = version.substring(0, representation);
+        }
+        try {
+            return OptionalInt.of(Integer.parseInt(version));
+        } catch (NumberFormatException e) {
+            return OptionalInt.empty();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.model.PartialItemListModel;
+import com.ractoc.tutorials.speedment.model.PartialItemModel;
+import com.ractoc.tutorials.speedment.service.ItemField;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Parses the fields parameter of the item endpoints and strips the fields that were not asked for from the models.
+ * The stripped models are partial models, which leave out their empty fields when they are serialized, so the stripped
+ * fields are not sent. The id is always kept.
+ */
+final class ItemFields {
+
+    static final Set<ItemField> LIST_FIELDS = EnumSet.of(ItemField.ID, ItemField.NAME, ItemField.ITEM_TYPE);
+    static final Set<ItemField> ITEM_FIELDS = EnumSet.allOf(ItemField.class);
+
+    private ItemFields() {
+        // utility class
+    }
+
+    /**
+     * @param fieldNames The field names as passed in the fields parameter.
+     * @param supported  The fields the endpoint supports.
+     * @return The selected fields, or empty when one of the names is not a supported field.
+     */
+    static Optional<Set<ItemField>> parse(Set<String> fieldNames, Set<ItemField> supported) {
+        Set<ItemField> fields = EnumSet.of(ItemField.ID);
+        for (String fieldName : fieldNames) {
+            Optional<ItemField> field = ItemField.fromFieldName(fieldName.trim());
+            if (!field.isPresent() || !supported.contains(field.get())) {
+                return Optional.empty();
+            }
+            fields.add(field.get());
+        }
+        return Optional.of(fields);
+    }
+
+    static String describe(Set<ItemField> supported) {
+        StringBuilder names = new StringBuilder();
+        for (ItemField field : supported) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(field.getFieldName());
+        }
+        return names.toString();
+    }
+
+    static ItemListModel select(ItemListModel item, Set<ItemField> fields) {
+        PartialItemListModel selected = new PartialItemListModel();
+        selected.setId(item.getId());
+        selected.setName(fields.contains(ItemField.NAME) ? item.getName() : null);
+        selected.setItemType(fields.contains(ItemField.ITEM_TYPE) ? item.getItemType() : null);
+        return selected;
+    }
+
+    static ItemModel select(ItemModel item, Set<ItemField> fields) {
+        PartialItemModel selected = new PartialItemModel();
+        selected.setId(item.getId());
+        selected.setName(fields.contains(ItemField.NAME) ? item.getName() : null);
+        selected.setLead(fields.contains(ItemField.LEAD) ? item.getLead() : null);
+        selected.setItemType(fields.contains(ItemField.ITEM_TYPE) ? item.getItemType() : null);
+        selected.setVersion(fields.contains(ItemField.VERSION) ? item.getVersion() : null);
+        return selected;
+    }
+}
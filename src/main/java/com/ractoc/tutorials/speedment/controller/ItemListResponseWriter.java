@@ -0,0 +1,78 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ractoc.tutorials.speedment.response.ItemListResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * Writes an {@link ItemListResponse} as JSON around the cached JSON of its items, see
+ * {@link com.ractoc.tutorials.speedment.handler.ItemJsonFragments}. The response is written with a generator of the
+ * application mapper, in the order and with the inclusion rules Jackson applies to {@link ItemListResponse}, so the
+ * bytes are the same as when the response is serialized with its models. The JSON of the items is copied to the output
+ * stream as is, without going through the generator.
+ */
+@Component
+public class ItemListResponseWriter {
+
+    private static final String RESPONSE_CODE = "responseCode";
+    private static final String ITEM_LIST = "itemList";
+    private static final String NEXT_CURSOR = "nextCursor";
+    private static final String TOTAL_COUNT = "totalCount";
+
+    private final JsonFactory jsonFactory;
+
+    @Autowired
+    public ItemListResponseWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Writes a successful item list response. The output stream is flushed, but not closed.
+     *
+     * @param outputStream The stream to write the response to.
+     * @param items        The UTF-8 encoded JSON of the items, in the order they should appear in the list.
+     * @param nextCursor   The cursor of the next page, or null on the last page or when the list is not paged.
+     * @param totalCount   The total number of items, or null when the list is not paged.
+     * @throws IOException Something went wrong while writing to the output stream.
+     */
+    public void write(OutputStream outputStream, List<byte[]> items, String nextCursor, Long totalCount)
+            throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // a flush only hands the buffered envelope to the stream, the stream is flushed once at the end
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.writeStartObject();
+            generator.writeNumberField(RESPONSE_CODE, OK.value());
+            // the response leaves out empty fields, just like an empty list
+            if (!items.isEmpty()) {
+                generator.writeArrayFieldStart(ITEM_LIST);
+                generator.flush();
+                // the generator does not see these values, so it does not write the separators between them either
+                for (int i = 0; i < items.size(); i++) {
+                    if (i > 0) {
+                        outputStream.write(',');
+                    }
+                    outputStream.write(items.get(i));
+                }
+                generator.writeEndArray();
+            }
+            if (nextCursor != null && !nextCursor.isEmpty()) {
+                generator.writeStringField(NEXT_CURSOR, nextCursor);
+            }
+            if (totalCount != null) {
+                generator.writeNumberField(TOTAL_COUNT, totalCount);
+            }
+            generator.writeEndObject();
+        }
+        outputStream.flush();
+    }
+}
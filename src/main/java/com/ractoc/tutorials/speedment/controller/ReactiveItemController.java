@@ -0,0 +1,94 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.ractoc.tutorials.speedment.handler.ReactiveItemHandler;
+import com.ractoc.tutorials.speedment.model.GetItemForm;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.response.BaseResponse;
+import com.ractoc.tutorials.speedment.response.ErrorResponse;
+import com.ractoc.tutorials.speedment.response.ItemResponse;
+import com.ractoc.tutorials.speedment.service.NoSuchEntryException;
+import com.ractoc.tutorials.speedment.service.ServiceException;
+import io.swagger.annotations.*;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+import static org.springframework.http.HttpStatus.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON_VALUE;
+
+@RestController
+@Api(tags = {"Reactive Item Resource"}, value = "/reactive/item", produces = "application/json")
+@SwaggerDefinition(tags = {
+        @Tag(name = "Reactive Item Resource", description = "Reactive variant of the read operations of the Item API. " +
+                "The lists are streamed, so they are never held in memory as a whole.")
+})
+@RequestMapping("/reactive/item")
+@Validated
+public class ReactiveItemController {
+
+    private final ReactiveItemHandler itemHandler;
+
+    @Autowired
+    public ReactiveItemController(ReactiveItemHandler itemHandler) {
+        this.itemHandler = itemHandler;
+    }
+
+    @ApiOperation(value = "Stream all items", produces = APPLICATION_STREAM_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Retrieval successfully processed. Each line of the body contains a single item.")
+    })
+    @GetMapping(value = "/list", produces = APPLICATION_STREAM_JSON_VALUE)
+    public Flux<ItemListModel> getItemList() {
+        return itemHandler.getItemList();
+    }
+
+    @ApiOperation(value = "Stream the items matching the search query, best match first", produces = APPLICATION_STREAM_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Search successfully processed. Each line of the body contains a single item.")
+    })
+    @GetMapping(value = "/search", produces = APPLICATION_STREAM_JSON_VALUE)
+    public Flux<ItemListModel> searchItems(
+            @ApiParam(value = "The words to search for, every word has to match the start of a word in the name or lead.", required = true)
+            @RequestParam @NotBlank @Size(max = ItemController.MAX_QUERY_LENGTH) String q,
+            @ApiParam(value = "The maximum number of items to return, the best matches come first.")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(ItemController.MAX_SEARCH_RESULTS) int limit) {
+        return itemHandler.searchItems(q, limit);
+    }
+
+    @ApiOperation(value = "Get the item by id or name", response = ItemResponse.class, produces = "application/json")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Retrieval successfully processed.", response = ItemResponse.class),
+            @ApiResponse(code = 404, message = "The item does not exist", response = ErrorResponse.class),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    @GetMapping(value = "", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> getItem(@Valid GetItemForm form) {
+        Mono<ItemModel> item = StringUtils.isNotEmpty(form.getId())
+                ? itemHandler.getItemById(form.getId())
+                : itemHandler.getItemByName(form.getName());
+        return item
+                .map(model -> ResponseEntity.ok().eTag(ItemETags.of(model, ItemETags.JSON)).<BaseResponse>body(new ItemResponse(OK, model)))
+                .onErrorResume(NoSuchEntryException.class, e -> error(NOT_FOUND, e))
+                .onErrorResume(ServiceException.class, e -> error(INTERNAL_SERVER_ERROR, e));
+    }
+
+    private static Mono<ResponseEntity<BaseResponse>> error(HttpStatus status, ServiceException e) {
+        return Mono.just(new ResponseEntity<>(new ErrorResponse(status, e.getMessage()), status));
+    }
+}
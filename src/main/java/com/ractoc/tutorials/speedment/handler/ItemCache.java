@@ -0,0 +1,223 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.ractoc.tutorials.speedment.model.CacheStatistics;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache for items, keyed by id and by lower-cased name. Entries are evicted when they are older
+ * than the configured time to live, or when the cache is full, in which case the least recently used entries are
+ * evicted.
+ * <p>
+ * The entries are held in concurrent maps, so a hit never waits for another request. Only the eviction of a full cache
+ * is done by one thread at a time, the other threads skip it and let the cache run over its size for a moment.
+ * <p>
+ * The write methods of the {@link ItemHandler} keep the cache up to date. To prevent a read that started before a
+ * write from caching the old version of the item, a loaded item is removed again when a write happened while loading.
+ */
+@Component
+public class ItemCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final Map<String, CacheEntry> itemsById = new ConcurrentHashMap<>();
+    // may point to an entry of which the item was renamed since, the name of the entry is checked on every lookup
+    private final Map<String, String> idsByName = new ConcurrentHashMap<>();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public ItemCache(@Value("${item.cache.max-size}") int maxSize, @Value("${item.cache.ttl-seconds}") long ttlSeconds) {
+        this(maxSize, ttlSeconds, System::nanoTime);
+    }
+
+    ItemCache(int maxSize, long ttlSeconds, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.clock = clock;
+    }
+
+    public ItemModel getById(String id, Function<String, ItemModel> loader) {
+        return get(normalize(id), null, id, loader);
+    }
+
+    public ItemModel getByName(String name, Function<String, ItemModel> loader) {
+        return get(null, normalize(name), name, loader);
+    }
+
+    /**
+     * Adds the written item to the cache, replacing the previously cached version if there is one.
+     *
+     * @param item The item as it was written to the database.
+     */
+    public void put(ItemModel item) {
+        // counted before the change, so a load running meanwhile sees the write once it has cached its item
+        writeCount.incrementAndGet();
+        store(item);
+    }
+
+    /**
+     * Removes the item with the supplied id from the cache.
+     *
+     * @param id The id of the item to remove.
+     */
+    public void evict(String id) {
+        writeCount.incrementAndGet();
+        String idKey = normalize(id);
+        CacheEntry entry = itemsById.get(idKey);
+        if (entry != null) {
+            remove(idKey, entry);
+        }
+    }
+
+    public void clear() {
+        writeCount.incrementAndGet();
+        itemsById.clear();
+        idsByName.clear();
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(itemsById.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    private ItemModel get(String idKey, String nameKey, String key, Function<String, ItemModel> loader) {
+        CacheEntry entry = idKey != null ? lookup(idKey) : lookupByName(nameKey);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.item.toBuilder().build();
+        }
+        long writeCountBeforeLoad = writeCount.get();
+        misses.incrementAndGet();
+        ItemModel item = loader.apply(key);
+        // the loaded item may be older than a written one, so it is not cached, or removed again, after a write
+        if (writeCount.get() == writeCountBeforeLoad) {
+            CacheEntry loaded = store(item);
+            if (writeCount.get() != writeCountBeforeLoad) {
+                remove(normalize(item.getId()), loaded);
+            }
+        }
+        return item.toBuilder().build();
+    }
+
+    private CacheEntry lookupByName(String nameKey) {
+        String idKey = idsByName.get(nameKey);
+        if (idKey == null) {
+            return null;
+        }
+        CacheEntry entry = lookup(idKey);
+        return entry != null && normalize(entry.item.getName()).equals(nameKey) ? entry : null;
+    }
+
+    private CacheEntry lookup(String idKey) {
+        CacheEntry entry = itemsById.get(idKey);
+        if (entry == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (now - entry.createdAt > ttlNanos) {
+            if (remove(idKey, entry)) {
+                evictions.incrementAndGet();
+            }
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry;
+    }
+
+    private CacheEntry store(ItemModel item) {
+        String idKey = normalize(item.getId());
+        CacheEntry entry = new CacheEntry(item.toBuilder().build(), clock.getAsLong());
+        CacheEntry previous = itemsById.put(idKey, entry);
+        if (previous != null) {
+            idsByName.remove(normalize(previous.item.getName()), idKey);
+        }
+        idsByName.put(normalize(item.getName()), idKey);
+        if (itemsById.size() > maxSize) {
+            evictLeastRecentlyUsed(idKey);
+        }
+        return entry;
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is back at its maximum size, keeping the entry that was
+     * just stored. A single pass over the entries finds them all, without ordering the whole cache.
+     */
+    private void evictLeastRecentlyUsed(String storedKey) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int overflow = itemsById.size() - maxSize;
+            if (overflow <= 0) {
+                return;
+            }
+            // the most recently used of the candidates is on top, so it is the one pushed out by an older entry
+            PriorityQueue<Map.Entry<String, CacheEntry>> candidates = new PriorityQueue<>(overflow + 1,
+                    Comparator.comparingLong((Map.Entry<String, CacheEntry> candidate) -> candidate.getValue().lastAccess)
+                            .reversed());
+            for (Map.Entry<String, CacheEntry> candidate : itemsById.entrySet()) {
+                if (!candidate.getKey().equals(storedKey)) {
+                    candidates.add(candidate);
+                    if (candidates.size() > overflow) {
+                        candidates.poll();
+                    }
+                }
+            }
+            for (Map.Entry<String, CacheEntry> candidate : candidates) {
+                if (remove(candidate.getKey(), candidate.getValue())) {
+                    evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry, unless it was replaced in the meantime.
+     *
+     * @return true if the entry was removed.
+     */
+    private boolean remove(String idKey, CacheEntry entry) {
+        if (itemsById.remove(idKey, entry)) {
+            idsByName.remove(normalize(entry.item.getName()), idKey);
+            return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class CacheEntry {
+        private final ItemModel item;
+        private final long createdAt;
+        private volatile long lastAccess;
+
+        private CacheEntry(ItemModel item, long createdAt) {
+            this.item = item;
+            this.createdAt = createdAt;
+            this.lastAccess = createdAt;
+        }
+    }
+}
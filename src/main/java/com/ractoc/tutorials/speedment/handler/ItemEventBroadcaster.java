@@ -0,0 +1,289 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the item changes to the clients subscribed to the server-sent event stream. Every event carries the token of
+ * the change as its id, so a client that lost its connection can catch up through /item/changes with the last id it
+ * received.
+ * <p>
+ * The writes never wait for the clients. The changes are handed to a single dispatcher thread, which maps every change
+ * once and offers it to the bounded buffer of each subscriber. A small pool of sender threads drains the buffers.
+ * A subscriber whose buffer is full is too slow to keep up. Its stream is closed, instead of silently skipping
+ * changes, and the client reconnects and catches up.
+ * <p>
+ * A send to a client that stopped reading blocks its sender thread until the server gives up on the connection. Every
+ * send therefore has a deadline. A subscriber whose send passes it is dropped, and the sender pool gets an extra
+ * thread for as long as the stalled send holds on to its own, so the other subscribers keep receiving their events.
+ */
+@Component
+public class ItemEventBroadcaster {
+
+    private static final String HEARTBEAT = "heartbeat";
+    // the send states of a subscriber besides the start time of a send in progress
+    private static final long IDLE = 0;
+    private static final long ABANDONED = -1;
+
+    private final ItemHandler itemHandler;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final Executor dispatcher;
+    private final Executor sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // the slots are reserved before the subscriber is created, so concurrent subscribes can not exceed the maximum
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Autowired
+    public ItemEventBroadcaster(ItemService itemService, ItemHandler itemHandler,
+                                @Value("${item.events.buffer-size}") int bufferSize,
+                                @Value("${item.events.max-subscribers}") int maxSubscribers,
+                                @Value("${item.events.timeout-ms}") long timeoutMs,
+                                @Value("${item.events.send-timeout-ms}") long sendTimeoutMs,
+                                @Value("${item.events.sender-threads}") int senderThreads) {
+        this(itemHandler, bufferSize, maxSubscribers, timeoutMs, sendTimeoutMs,
+                Executors.newSingleThreadExecutor(daemonThreads("item-events-dispatcher")),
+                new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(), daemonThreads("item-events-sender")));
+        itemService.addChangeListener(this::publish);
+    }
+
+    ItemEventBroadcaster(ItemHandler itemHandler, int bufferSize, int maxSubscribers, long timeoutMs,
+                         long sendTimeoutMs, Executor dispatcher, Executor sender) {
+        this.itemHandler = itemHandler;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(Subscriber::close);
+        shutdown(dispatcher);
+        shutdown(sender);
+    }
+
+    /**
+     * Opens a new event stream, which receives all changes committed from now on.
+     *
+     * @return The emitter of the stream, or empty when the maximum number of subscribers is reached.
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(newEmitter(timeoutMs));
+        subscribers.add(subscriber);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber::close);
+        return Optional.of(subscriber.emitter);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    void publish(ItemChange change) {
+        dispatcher.execute(() -> {
+            ItemChangeModel event = itemHandler.toChangeModel(change);
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        });
+    }
+
+    /**
+     * Sends a comment to every subscriber, which keeps idle streams open through proxies and detects the clients that
+     * went away.
+     */
+    @Scheduled(fixedDelayString = "${item.events.heartbeat-ms}")
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    /**
+     * Drops the subscribers with a send that has passed its deadline. Checking once per send timeout, a stalled send is
+     * noticed within twice the timeout.
+     */
+    @Scheduled(fixedDelayString = "${item.events.send-timeout-ms}")
+    public void expireStalledSends() {
+        long now = System.currentTimeMillis();
+        subscribers.forEach(subscriber -> subscriber.expire(now));
+    }
+
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void remove(Subscriber subscriber) {
+        // only the call that actually removes the subscriber frees its slot
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Grows or shrinks the sender pool, to replace the threads held by stalled sends. Only a pool of the broadcaster's
+     * own can be resized.
+     */
+    private void resizeSender(int delta) {
+        if (sender instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) sender;
+            synchronized (pool) {
+                // the core size may never exceed the maximum size, so the order depends on the direction
+                if (delta > 0) {
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                    pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                } else {
+                    pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void shutdown(Executor executor) {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // holds item changes and heartbeats, which are sent as comments
+        private final Queue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // IDLE, ABANDONED or the time the send in progress started
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Object event) {
+            if (!buffer.offer(event)) {
+                // too slow to keep up
+                close();
+                return;
+            }
+            // a single drain at a time keeps the events of a subscriber in order
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object event;
+                while ((event = buffer.poll()) != null && !closed.get()) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away, or the stream already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                // a subscriber closed during a send is completed here, completing it is harmless when already done
+                emitter.complete();
+                return;
+            }
+            // an event offered after the last poll, but before draining was reset, would otherwise be left behind
+            if (!buffer.isEmpty() && !closed.get() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void send(Object event) throws IOException {
+            sendStarted.set(System.currentTimeMillis());
+            try {
+                if (event instanceof ItemChangeModel) {
+                    ItemChangeModel change = (ItemChangeModel) event;
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getToken()))
+                            .name(change.getOperation().name().toLowerCase(Locale.ROOT))
+                            .data(change, MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(SseEmitter.event().comment(event.toString()));
+                }
+            } finally {
+                if (sendStarted.getAndSet(IDLE) == ABANDONED) {
+                    // this thread is back, so the thread added in its place is no longer needed
+                    resizeSender(-1);
+                }
+            }
+        }
+
+        private void expire(long now) {
+            long started = sendStarted.get();
+            if (started != IDLE && started != ABANDONED && now - started > sendTimeoutMs
+                    && sendStarted.compareAndSet(started, ABANDONED)) {
+                resizeSender(1);
+                abandon();
+            }
+        }
+
+        private void close() {
+            // the emitter is locked during a send, a send in progress completes the stream itself once it returns
+            if (abandon() && sendStarted.get() == IDLE) {
+                // ending the stream normally makes the client reconnect, after which it catches up from its last event id
+                emitter.complete();
+            }
+        }
+
+        /**
+         * Stops sending to the subscriber and frees its slot, without touching the emitter.
+         *
+         * @return true if the subscriber was still open.
+         */
+        private boolean abandon() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                buffer.clear();
+                return true;
+            }
+            return false;
+        }
+    }
+}
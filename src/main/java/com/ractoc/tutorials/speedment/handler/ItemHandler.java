@@ -1,48 +1,274 @@
 package com.ractoc.tutorials.speedment.handler;
 
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
 import com.ractoc.tutorials.speedment.mapper.ItemMapper;
+import com.ractoc.tutorials.speedment.model.CacheStatistics;
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
 import com.ractoc.tutorials.speedment.model.ItemListModel;
 import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.model.ItemStatistics;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import com.ractoc.tutorials.speedment.service.ItemField;
 import com.ractoc.tutorials.speedment.service.ItemService;
+import com.ractoc.tutorials.speedment.service.NoSuchEntryException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Validated
 public class ItemHandler {
 
+    private static final int NDJSON_SEPARATOR = '\n';
+    // the number of items read from the database at once while streaming the list
+    static final int NDJSON_PAGE_SIZE = 500;
+
     private final ItemService itemService;
+    private final ItemCache itemCache;
+    private final ItemJsonFragments jsonFragments;
 
     @Autowired
-    public ItemHandler(ItemService itemService) {
+    public ItemHandler(ItemService itemService, ItemCache itemCache, ItemJsonFragments jsonFragments) {
         this.itemService = itemService;
+        this.itemCache = itemCache;
+        this.jsonFragments = jsonFragments;
     }
 
     public List<ItemListModel> getItemList() {
-        return itemService.getItemList().map(ItemMapper.INSTANCE::dbToListModel).collect(Collectors.toList());
+        try (Stream<Item> items = itemService.getItemList()) {
+            return items.map(ItemMapper.INSTANCE::dbToListModel).collect(Collectors.toList());
+        }
+    }
+
+    public List<ItemListModel> getItemList(String after, int limit) {
+        try (Stream<Item> items = itemService.getItemList(after, limit)) {
+            return items.map(ItemMapper.INSTANCE::dbToListModel).collect(Collectors.toList());
+        }
+    }
+
+    public List<ItemListModel> getItemList(Set<GeneratedItem.ItemType> itemTypes) {
+        try (Stream<Item> items = itemService.getItemList(itemTypes)) {
+            return items.map(ItemMapper.INSTANCE::dbToListModel).collect(Collectors.toList());
+        }
+    }
+
+    public List<ItemListModel> getItemList(String after, int limit, Set<GeneratedItem.ItemType> itemTypes) {
+        try (Stream<Item> items = itemService.getItemList(after, limit, itemTypes)) {
+            return items.map(ItemMapper.INSTANCE::dbToListModel).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns a page of items, of which only the supplied fields are read from the database. The other fields of the
+     * returned models are left empty.
+     *
+     * @param after     The id of the last item of the previous page, or null to start at the first page.
+     * @param limit     The maximum number of items to return, Long.MAX_VALUE for all items.
+     * @param itemTypes The types of the items to return, null or empty for all types.
+     * @param fields    The fields to read, the id is always read.
+     * @return The items on the requested page.
+     */
+    public List<ItemListModel> getItemList(String after, long limit, Set<GeneratedItem.ItemType> itemTypes,
+                                           Set<ItemField> fields) {
+        return itemService.getItemList(after, limit, itemTypes, fields).stream()
+                .map(ItemMapper.INSTANCE::dbToListModel)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes all items as newline delimited JSON to the supplied output stream. The items are read a page at a time
+     * from the in-memory index, keyed on the id of the last item of the previous page, so a slow client never holds on
+     * to a database permit or a result set.
+     *
+     * @param outputStream The stream to write the items to.
+     * @throws IOException Something went wrong while writing to the output stream.
+     */
+    public void writeItemList(OutputStream outputStream) throws IOException {
+        String after = null;
+        List<Item> page;
+        do {
+            try (Stream<Item> items = itemService.getItemList(after, NDJSON_PAGE_SIZE)) {
+                page = items.collect(Collectors.toList());
+            }
+            for (Item item : page) {
+                outputStream.write(jsonFragments.get(item));
+                outputStream.write(NDJSON_SEPARATOR);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == NDJSON_PAGE_SIZE);
+        outputStream.flush();
+    }
+
+    /**
+     * Returns the cached JSON of all items, see {@link ItemJsonFragments}. Only the items that changed since they were
+     * last returned are serialized again.
+     *
+     * @return The UTF-8 encoded JSON of every item, as an {@link ItemListModel}. The arrays are shared, so they must not
+     * be modified.
+     */
+    public List<byte[]> getItemJsonList() {
+        try (Stream<Item> items = itemService.getItemList()) {
+            return items.map(jsonFragments::get).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @param itemTypes The types of the items to return.
+     * @return The cached JSON of all items of the supplied types, ordered by id, see {@link #getItemJsonList()}.
+     */
+    public List<byte[]> getItemJsonList(Set<GeneratedItem.ItemType> itemTypes) {
+        try (Stream<Item> items = itemService.getItemList(itemTypes)) {
+            return items.map(jsonFragments::get).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns a page of items as their cached JSON, see {@link #getItemJsonList()}.
+     *
+     * @param after     The id of the last item of the previous page, or null to start at the first page.
+     * @param limit     The maximum number of items on the page.
+     * @param itemTypes The types of the items to return, null or empty for all types.
+     * @return The items on the requested page, with the cursor of the next page.
+     */
+    public ItemJsonPage getItemJsonPage(String after, int limit, Set<GeneratedItem.ItemType> itemTypes) {
+        boolean allTypes = itemTypes == null || itemTypes.isEmpty();
+        List<Item> items;
+        // fetch one extra item to find out if there is a next page
+        try (Stream<Item> page = allTypes
+                ? itemService.getItemList(after, limit + 1L)
+                : itemService.getItemList(after, limit + 1L, itemTypes)) {
+            items = page.collect(Collectors.toList());
+        }
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = items.get(limit - 1).getId();
+        }
+        return new ItemJsonPage(items.stream().map(jsonFragments::get).collect(Collectors.toList()), nextCursor);
+    }
+
+    public long getItemCount() {
+        return itemService.getItemCount();
+    }
+
+    public long getItemCount(Set<GeneratedItem.ItemType> itemTypes) {
+        return itemService.getItemCount(itemTypes);
+    }
+
+    public long getChangeCount() {
+        return itemService.getChangeCount();
+    }
+
+    public OptionalInt getItemVersionById(String id) {
+        return itemService.getItemVersionById(id);
+    }
+
+    public Optional<String> getItemIdByName(String name) {
+        return itemService.getItemIdByName(name);
+    }
+
+    public List<ItemListModel> searchItems(String query, int limit) {
+        return itemService.searchItems(query, limit).stream()
+                .map(ItemMapper.INSTANCE::dbToListModel)
+                .collect(Collectors.toList());
+    }
+
+    public List<ItemChangeModel> getChanges(long token, int limit) {
+        return itemService.getChanges(token, limit).stream()
+                .map(this::toChangeModel)
+                .collect(Collectors.toList());
+    }
+
+    public long getLatestChangeToken() {
+        return itemService.getLatestChangeToken();
     }
 
     public ItemModel getItemById(String id) {
-        return ItemMapper.INSTANCE.dbToModel(itemService.getItemById(id));
+        return itemCache.getById(id, key -> ItemMapper.INSTANCE.dbToModel(itemService.getItemById(key)));
     }
 
     public ItemModel getItemByName(String name) {
-        return ItemMapper.INSTANCE.dbToModel(itemService.getItemByName(name));
+        return itemCache.getByName(name, key -> ItemMapper.INSTANCE.dbToModel(itemService.getItemByName(key)));
     }
 
     public ItemModel saveItem(ItemModel item) {
-        return ItemMapper.INSTANCE.dbToModel(itemService.saveItem(ItemMapper.INSTANCE.modelToDb(item)));
+        ItemModel savedItem = ItemMapper.INSTANCE.dbToModel(itemService.saveItem(ItemMapper.INSTANCE.modelToDb(item)));
+        itemCache.put(savedItem);
+        return savedItem;
+    }
+
+    public List<ItemModel> saveItems(List<ItemModel> items) {
+        List<Item> dbItems = items.stream().map(ItemMapper.INSTANCE::modelToDb).collect(Collectors.toList());
+        List<ItemModel> savedItems = itemService.saveItems(dbItems).stream()
+                .map(ItemMapper.INSTANCE::dbToModel)
+                .collect(Collectors.toList());
+        savedItems.forEach(itemCache::put);
+        return savedItems;
     }
 
     public ItemModel updateItem(ItemModel item) {
-        return ItemMapper.INSTANCE.dbToModel(itemService.updateItem(ItemMapper.INSTANCE.modelToDb(item)));
+        // evict first, so a failed update never leaves the old version in the cache
+        itemCache.evict(item.getId());
+        ItemModel updatedItem = ItemMapper.INSTANCE.dbToModel(
+                itemService.updateItem(ItemMapper.INSTANCE.modelToDb(item), item.getVersion()));
+        itemCache.put(updatedItem);
+        return updatedItem;
     }
 
     public void deleteItem(String id) {
         itemService.deleteItem(id);
+        itemCache.evict(id);
+    }
+
+    public int deleteItems(List<String> ids) {
+        int deleted = itemService.deleteItems(ids);
+        ids.forEach(itemCache::evict);
+        return deleted;
+    }
+
+    public int deleteItemsByType(GeneratedItem.ItemType itemType) {
+        int deleted = itemService.deleteItemsByType(itemType);
+        // the cache has no notion of item types, so just start over
+        itemCache.clear();
+        return deleted;
+    }
+
+    public ItemStatistics getItemStatistics() {
+        Map<GeneratedItem.ItemType, Long> countsByType = itemService.getItemCountsByType();
+        long totalCount = countsByType.values().stream().mapToLong(Long::longValue).sum();
+        return new ItemStatistics(totalCount, countsByType);
+    }
+
+    /**
+     * Maps a change to its model. A change passed to the change listeners carries the item as it was written, which is
+     * used as is. For a change read back from the log, the current state of the item is looked up instead.
+     */
+    ItemChangeModel toChangeModel(ItemChange change) {
+        ItemModel item = change.getItem().map(ItemMapper.INSTANCE::dbToModel).orElse(null);
+        if (item == null && change.getOperation() != ItemChange.Operation.DELETE) {
+            try {
+                item = ItemMapper.INSTANCE.dbToModel(itemService.getItemById(change.getItemId()));
+            } catch (NoSuchEntryException e) {
+                // deleted by a later change, which follows further on in the log
+            }
+        }
+        return new ItemChangeModel(change.getToken(), change.getItemId(), change.getOperation(), item);
+    }
+
+    public CacheStatistics getCacheStatistics() {
+        return itemCache.getStatistics();
     }
 }
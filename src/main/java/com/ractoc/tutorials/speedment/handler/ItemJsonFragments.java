@@ -0,0 +1,87 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.mapper.ItemMapper;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the list JSON of every item, encoded as UTF-8, so the item lists are written by copying bytes instead of
+ * mapping and serializing every item again for every request.
+ * <p>
+ * A fragment is tagged with the version of the item it was encoded from. The version is incremented with every update,
+ * so an updated item is encoded again the first time it is written. The fragments of deleted items are dropped.
+ */
+@Component
+public class ItemJsonFragments {
+
+    private final ConcurrentMap<String, Fragment> fragmentsById = new ConcurrentHashMap<>();
+    private final ObjectWriter writer;
+
+    @Autowired
+    public ItemJsonFragments(ItemService itemService, ObjectMapper objectMapper) {
+        this(objectMapper);
+        itemService.addChangeListener(this::evict);
+    }
+
+    ItemJsonFragments(ObjectMapper objectMapper) {
+        // without change notifications, for testing
+        // fragments are written into larger documents, so they are never indented, whatever the application mapper does
+        this.writer = objectMapper.writerFor(ItemListModel.class).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Returns the JSON of the item, encoding it when there is no fragment for the current version of the item yet.
+     *
+     * @param item The item to get the JSON for.
+     * @return The UTF-8 encoded JSON of the item, as an {@link ItemListModel}. The array is shared, so it must not be
+     * modified.
+     */
+    public byte[] get(Item item) {
+        Fragment fragment = fragmentsById.get(item.getId());
+        if (fragment == null || fragment.version != item.getVersion()) {
+            fragment = new Fragment(item.getVersion(), encode(item));
+            fragmentsById.put(item.getId(), fragment);
+        }
+        return fragment.json;
+    }
+
+    public int size() {
+        return fragmentsById.size();
+    }
+
+    void evict(ItemChange change) {
+        if (change.getOperation() == ItemChange.Operation.DELETE) {
+            fragmentsById.remove(change.getItemId());
+        }
+    }
+
+    private byte[] encode(Item item) {
+        try {
+            return writer.writeValueAsBytes(ItemMapper.INSTANCE.dbToListModel(item));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Unable to encode item " + item.getId(), e);
+        }
+    }
+
+    private static final class Fragment {
+        private final int version;
+        private final byte[] json;
+
+        private Fragment(int version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A page of items as their cached JSON, see {@link ItemJsonFragments}, together with the cursor of the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemJsonPage {
+    // the UTF-8 encoded JSON of the items on the page, the arrays are shared, so they must not be modified
+    private final List<byte[]> items;
+    // the id of the last item on the page, or null on the last page
+    private final String nextCursor;
+}
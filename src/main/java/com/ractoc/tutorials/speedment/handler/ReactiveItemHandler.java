@@ -0,0 +1,72 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.mapper.ItemMapper;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reactive counterpart of the {@link ItemHandler}. The item list, the lookups and the searches are all answered from
+ * the in-memory indexes, so they run on the subscribing thread instead of paying for a hop to a scheduler.
+ */
+@Service
+public class ReactiveItemHandler {
+
+    private final ItemService itemService;
+    private final ItemHandler itemHandler;
+    private final int pageSize;
+
+    @Autowired
+    public ReactiveItemHandler(ItemService itemService, ItemHandler itemHandler,
+                               @Value("${item.reactive.page-size}") int pageSize) {
+        this.itemService = itemService;
+        this.itemHandler = itemHandler;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Emits all items, reading them a page at a time, keyed on the id of the last item of the previous page. The next
+     * page is only read when the subscriber asks for more items, and the pages are read from the in-memory index, so a
+     * slow subscriber never keeps a connection or result set open.
+     *
+     * @return The flux of all items.
+     */
+    public Flux<ItemListModel> getItemList() {
+        return getPage(null)
+                .expand(page -> page.size() < pageSize ? Mono.empty() : getPage(page.get(page.size() - 1).getId()))
+                .flatMapIterable(Function.identity(), 1)
+                .map(ItemMapper.INSTANCE::dbToListModel);
+    }
+
+    private Mono<List<Item>> getPage(String after) {
+        return Mono.fromCallable(() -> {
+            try (Stream<Item> items = itemService.getItemList(after, pageSize)) {
+                return items.collect(Collectors.toList());
+            }
+        });
+    }
+
+    public Flux<ItemListModel> searchItems(String query, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(itemService.searchItems(query, limit)))
+                .map(ItemMapper.INSTANCE::dbToListModel);
+    }
+
+    public Mono<ItemModel> getItemById(String id) {
+        return Mono.fromCallable(() -> itemHandler.getItemById(id));
+    }
+
+    public Mono<ItemModel> getItemByName(String name) {
+        return Mono.fromCallable(() -> itemHandler.getItemByName(name));
+    }
+}
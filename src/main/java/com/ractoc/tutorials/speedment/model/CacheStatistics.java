@@ -0,0 +1,20 @@
+package com.ractoc.tutorials.speedment.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@ApiModel(value = "Cache Statistics Model", description = "Contains the usage counters of a cache")
+public class CacheStatistics {
+    @ApiModelProperty(value = "The number of entries currently in the cache.")
+    private final int size;
+    @ApiModelProperty(value = "The number of lookups answered from the cache.")
+    private final long hits;
+    @ApiModelProperty(value = "The number of lookups that had to be loaded from the database.")
+    private final long misses;
+    @ApiModelProperty(value = "The number of entries removed because they expired or the cache was full.")
+    private final long evictions;
+}
@@ -0,0 +1,22 @@
+package com.ractoc.tutorials.speedment.model;
+
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@ApiModel(value = "Item Change Model", description = "Contains a single create, update or delete of an item")
+public class ItemChangeModel {
+    @ApiModelProperty(value = "The token of the change, pass it as 'since' to retrieve the changes after this one.")
+    private final long token;
+    @ApiModelProperty(value = "The id of the changed item.")
+    private final String id;
+    @ApiModelProperty(value = "The kind of change.")
+    private final ItemChange.Operation operation;
+    @ApiModelProperty(value = "The item as written by the change for pushed events, the current state of the item otherwise. "
+            + "Absent for deletes, and when the item was deleted later on.")
+    private final ItemModel item;
+}
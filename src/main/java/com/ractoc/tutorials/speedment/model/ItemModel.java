@@ -23,4 +23,6 @@ public class ItemModel {
     private String lead;
     @NotNull
     private GeneratedItem.ItemType itemType = GeneratedItem.ItemType.BOARDGAMES;
+    // the version the item had when it was read, used to detect concurrent updates
+    private Integer version;
 }
@@ -0,0 +1,19 @@
+package com.ractoc.tutorials.speedment.model;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+@ApiModel(value = "Item Statistics Model", description = "Contains the number of items, in total and per item type")
+public class ItemStatistics {
+    @ApiModelProperty(value = "The total number of items.")
+    private final long totalCount;
+    @ApiModelProperty(value = "The number of items of every item type, including the types without items.")
+    private final Map<GeneratedItem.ItemType, Long> countsByType;
+}
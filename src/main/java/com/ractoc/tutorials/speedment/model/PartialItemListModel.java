@@ -0,0 +1,13 @@
+package com.ractoc.tutorials.speedment.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.NoArgsConstructor;
+
+/**
+ * An {@link ItemListModel} holding only the fields selected with the fields parameter. The fields that were not
+ * selected are empty and left out of the response, while a full {@link ItemListModel} still sends its empty fields.
+ */
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PartialItemListModel extends ItemListModel {
+}
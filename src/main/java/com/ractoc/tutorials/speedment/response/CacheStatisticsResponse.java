@@ -0,0 +1,22 @@
+package com.ractoc.tutorials.speedment.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ractoc.tutorials.speedment.model.CacheStatistics;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@ApiModel(value = "CacheStatisticsResponse Model", description = "Contains the usage counters of the item cache.")
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CacheStatisticsResponse extends BaseResponse {
+
+    @ApiModelProperty(value = "The usage counters of the item cache.")
+    private final CacheStatistics statistics;
+
+    public CacheStatisticsResponse(HttpStatus responseCode, CacheStatistics statistics) {
+        super(responseCode.value());
+        this.statistics = statistics;
+    }
+}
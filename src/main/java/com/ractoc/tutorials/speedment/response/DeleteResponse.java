@@ -0,0 +1,21 @@
+package com.ractoc.tutorials.speedment.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@ApiModel(value = "DeleteResponse Model", description = "Contains the number of items removed by a bulk delete.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeleteResponse extends BaseResponse {
+
+    @ApiModelProperty(value = "The number of items that were removed.")
+    private final Integer deletedCount;
+
+    public DeleteResponse(HttpStatus responseCode, int deletedCount) {
+        super(responseCode.value());
+        this.deletedCount = deletedCount;
+    }
+}
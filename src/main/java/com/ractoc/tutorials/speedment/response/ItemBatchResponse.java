@@ -0,0 +1,26 @@
+package com.ractoc.tutorials.speedment.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+@Getter
+@ApiModel(
+        value = "ItemBatchResponse Model",
+        description = "Contains the items that were created in a single batch.")
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ItemBatchResponse extends BaseResponse {
+
+    @ApiModelProperty(value = "The created items, in the same order as they were supplied.")
+    private final List<ItemModel> items;
+
+    public ItemBatchResponse(HttpStatus responseCode, List<ItemModel> items) {
+        super(responseCode.value());
+        this.items = items;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ractoc.tutorials.speedment.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+@Getter
+@ApiModel(
+        value = "ItemChangesResponse Model",
+        description = "Contains the item changes after the requested token, oldest first.")
+@JsonInclude(Include.NON_EMPTY)
+public class ItemChangesResponse extends BaseResponse {
+
+    private final List<ItemChangeModel> changes;
+
+    @ApiModelProperty(value = "The token to pass as 'since' to retrieve the next changes.")
+    private final long nextToken;
+
+    public ItemChangesResponse(HttpStatus responseCode, List<ItemChangeModel> changes, long nextToken) {
+        super(responseCode.value());
+        this.changes = changes;
+        this.nextToken = nextToken;
+    }
+}
@@ -3,6 +3,7 @@ package com.ractoc.tutorials.speedment.response;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ractoc.tutorials.speedment.model.ItemListModel;
 import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
@@ -19,8 +20,20 @@ public class ItemListResponse extends BaseResponse {
 
     private List<ItemListModel> itemList;
 
+    @ApiModelProperty(value = "The cursor to pass as 'after' to retrieve the next page. Absent on the last page.")
+    private String nextCursor;
+
+    @ApiModelProperty(value = "The total number of items, regardless of paging.")
+    private Long totalCount;
+
     public ItemListResponse(HttpStatus responseCode, List<ItemListModel> itemList) {
         super(responseCode.value());
         this.itemList = itemList;
     }
+
+    public ItemListResponse(HttpStatus responseCode, List<ItemListModel> itemList, String nextCursor, long totalCount) {
+        this(responseCode, itemList);
+        this.nextCursor = nextCursor;
+        this.totalCount = totalCount;
+    }
 }
@@ -0,0 +1,22 @@
+package com.ractoc.tutorials.speedment.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ractoc.tutorials.speedment.model.ItemStatistics;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@ApiModel(value = "ItemStatisticsResponse Model", description = "Contains the number of items, in total and per item type.")
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ItemStatisticsResponse extends BaseResponse {
+
+    @ApiModelProperty(value = "The item counts.")
+    private final ItemStatistics statistics;
+
+    public ItemStatisticsResponse(HttpStatus responseCode, ItemStatistics statistics) {
+        super(responseCode.value());
+        this.statistics = statistics;
+    }
+}
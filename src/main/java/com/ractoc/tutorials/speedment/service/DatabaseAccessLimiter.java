@@ -0,0 +1,87 @@
+package com.ractoc.tutorials.speedment.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bounds the number of database operations the {@link ItemService} runs at the same time. Without a bound, every
+ * request thread would queue up inside the connection pool, which matters most when requests are not limited by the
+ * size of a thread pool, like when they run on virtual threads.
+ * <p>
+ * Operations wait at most the configured timeout for a permit, after which they fail with a {@link ServiceException}.
+ */
+@Component
+public class DatabaseAccessLimiter {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    @Autowired
+    public DatabaseAccessLimiter(@Value("${item.db.max-concurrency}") int maxConcurrency,
+                                 @Value("${item.db.acquire-timeout-ms}") long timeoutMillis) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs the supplied database operation once a permit is available.
+     *
+     * @param work The operation to run.
+     * @param <T>  The type of the result of the operation.
+     * @return The result of the operation.
+     */
+    public <T> T call(Supplier<T> work) {
+        acquire();
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Creates the stream once a permit is available. The permit is held until the stream is closed, since that is
+     * when the underlying result set is released.
+     *
+     * @param work The operation which creates the stream.
+     * @param <T>  The type of the elements of the stream.
+     * @return The stream, which releases the permit when it is closed.
+     */
+    public <T> Stream<T> stream(Supplier<Stream<T>> work) {
+        acquire();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            return work.get().onClose(release);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceException("Timed out waiting for database access after " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for database access", e);
+        }
+    }
+}
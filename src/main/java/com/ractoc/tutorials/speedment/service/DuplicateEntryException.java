@@ -6,4 +6,8 @@ public class DuplicateEntryException extends ServiceException {
 	public DuplicateEntryException(String msg) {
 		super(msg);
 	}
+
+	DuplicateEntryException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
 }
@@ -0,0 +1,9 @@
+package com.ractoc.tutorials.speedment.service;
+
+public class ExpiredChangeTokenException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+
+	public ExpiredChangeTokenException(String msg) {
+		super(msg);
+	}
+}
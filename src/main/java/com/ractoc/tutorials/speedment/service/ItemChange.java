@@ -0,0 +1,60 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+
+import java.util.Optional;
+
+/**
+ * A single entry of the item change log.
+ */
+public class ItemChange {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    private final long token;
+    private final String itemId;
+    private final Operation operation;
+    private final Item item;
+
+    public ItemChange(long token, String itemId, Operation operation) {
+        this(token, itemId, operation, null);
+    }
+
+    /**
+     * @param token     The sequence number of the change.
+     * @param itemId    The id of the changed item.
+     * @param operation The kind of change.
+     * @param item      The item as written by the change, or null when it is not known.
+     */
+    public ItemChange(long token, String itemId, Operation operation, Item item) {
+        this.token = token;
+        this.itemId = itemId;
+        this.operation = operation;
+        this.item = item;
+    }
+
+    /**
+     * @return The sequence number of the change, changes are numbered in the order they were committed.
+     */
+    public long getToken() {
+        return token;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return The item as written by the change. Only present for the creates and updates passed to the change
+     * listeners, the changes read back from the log only hold the id of the item.
+     */
+    public Optional<Item> getItem() {
+        return Optional.ofNullable(item);
+    }
+}
@@ -0,0 +1,311 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemImpl;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.speedment.runtime.core.db.SqlFunction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Log of all creates, updates and deletes of items, stored in the item_change table. The {@link ItemService} writes
+ * the items and their changes in a single transaction, so a change is logged if and only if the write is committed.
+ * Every change gets the next number of an auto increment sequence, which clients use as a token to ask for the changes
+ * after the last one they have seen.
+ * <p>
+ * Writes run concurrently, so they do not necessarily commit in the order of their tokens. A reader that saw a change
+ * before an earlier numbered change was committed would skip that one with its next request. Every write therefore
+ * registers itself before it logs anything, and the changes are only handed out up to the lowest token a write in
+ * progress may still commit. This covers the writes of this instance. When other instances write to the same table,
+ * the changes are also held back until they are older than the visibility lag, which should exceed the duration of
+ * the longest write.
+ * <p>
+ * Listeners are told about the changes of this instance once they are committed and handed out, in the order of their
+ * tokens. They are called on one of the writing threads, after its transaction is done, so they should hand the
+ * changes off instead of processing them.
+ * <p>
+ * Changes older than the retention period are removed by {@link #compact()}. The most recent change is always kept,
+ * so the smallest remaining token tells which tokens have been compacted away, even after a restart.
+ */
+@Component
+public class ItemChangeLog {
+
+    private static final String CHANGE_TABLE = "item_change";
+
+    private final ItemSqlExecutor sqlExecutor;
+    private final String changeTable;
+    private final long retentionMs;
+    private final long visibilityLagMs;
+    // all changes up to and including this token have been removed
+    private final AtomicLong horizon = new AtomicLong();
+    // the highest token known to have been handed out by the database
+    private final AtomicLong latestToken = new AtomicLong();
+    private final Set<Write> writesInProgress = ConcurrentHashMap.newKeySet();
+    private final Queue<ItemChange> undelivered = new PriorityBlockingQueue<>(11,
+            Comparator.comparingLong(ItemChange::getToken));
+    // only keeps a single thread calling the listeners, writers never wait for it
+    private final Lock deliveryLock = new ReentrantLock();
+    private final List<Consumer<ItemChange>> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public ItemChangeLog(ItemSqlExecutor sqlExecutor, @Value("${item.changes.retention-ms}") long retentionMs,
+                         @Value("${item.changes.visibility-lag-ms}") long visibilityLagMs) {
+        this.sqlExecutor = sqlExecutor;
+        this.changeTable = sqlExecutor.getTable(CHANGE_TABLE);
+        this.retentionMs = retentionMs;
+        this.visibilityLagMs = visibilityLagMs;
+        horizon.set(sqlExecutor.inTransaction(this::findHorizon));
+        latestToken.set(Math.max(findLatestToken(false), horizon.get()));
+    }
+
+    /**
+     * @param listener Called with every change committed from now on.
+     */
+    void addListener(Consumer<ItemChange> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Runs the supplied write in a single transaction. The changes made by the write should be logged through the
+     * {@link Write} passed to it, which also holds the connection of the transaction.
+     *
+     * @param work The write to execute.
+     * @param <T>  The type of the result of the write.
+     * @return The result of the write.
+     */
+    <T> T write(SqlFunction<Write, T> work) {
+        Write write = new Write(latestToken.get());
+        writesInProgress.add(write);
+        try {
+            T result = sqlExecutor.inTransaction(connection -> work.apply(write.begin(connection)));
+            // queued while the write still holds back its tokens, so a delivery running meanwhile can not pass them
+            undelivered.addAll(write.changes);
+            return result;
+        } finally {
+            writesInProgress.remove(write);
+            deliver();
+        }
+    }
+
+    /**
+     * Logs a create or update of a single item. The listeners receive a copy of the item as it is at this point, so
+     * the item must already hold the values written to the database.
+     *
+     * @param write     The write that changed the item.
+     * @param operation The kind of change.
+     * @param item      The changed item.
+     * @throws SQLException Something went wrong while writing the change.
+     */
+    void record(Write write, ItemChange.Operation operation, Item item) throws SQLException {
+        record(write, operation, Collections.singletonList(item));
+    }
+
+    /**
+     * Logs a create or update of several items, with a single batch of inserts.
+     *
+     * @param write     The write that changed the items.
+     * @param operation The kind of change.
+     * @param items     The changed items.
+     * @throws SQLException Something went wrong while writing the changes.
+     */
+    void record(Write write, ItemChange.Operation operation, List<Item> items) throws SQLException {
+        record(write, operation, items.stream().map(Item::getId).collect(Collectors.toList()),
+                items.stream().map(ItemIndex::copyOf).collect(Collectors.toList()));
+    }
+
+    /**
+     * Deletes all items matching the condition and logs their removal. The removed items are returned by the DELETE
+     * statement itself, so the rows are not read and locked up front, and unknown items are not logged.
+     *
+     * @param write      The write deleting the items.
+     * @param condition  The WHERE clause of the delete statement, with a ? for each parameter.
+     * @param parameters The values of the parameters, in the same order as they occur in the condition.
+     * @return The items that are removed, holding only their id, type and version.
+     * @throws SQLException Something went wrong while deleting the items or writing the changes.
+     */
+    List<Item> remove(Write write, String condition, List<?> parameters) throws SQLException {
+        List<Item> items = sqlExecutor.executeQuery(write.getConnection(), "DELETE FROM "
+                + sqlExecutor.getItemTable() + " WHERE " + condition + " RETURNING id, item_type, version", parameters,
+                resultSet -> new ItemImpl()
+                        .setId(resultSet.getString(1))
+                        .setItemType(GeneratedItem.ItemType.fromDatabase(resultSet.getString(2)))
+                        .setVersion(resultSet.getInt(3)));
+        if (!items.isEmpty()) {
+            record(write, ItemChange.Operation.DELETE, items.stream().map(Item::getId).collect(Collectors.toList()),
+                    Collections.nCopies(items.size(), null));
+        }
+        return items;
+    }
+
+    /**
+     * @param token The token of the last change the caller has seen.
+     * @param limit The maximum number of changes to return.
+     * @return The changes after the token, oldest first.
+     * @throws ExpiredChangeTokenException The changes directly after the token have already been compacted away.
+     */
+    List<ItemChange> findAfter(long token, int limit) {
+        if (token < horizon.get()) {
+            throw new ExpiredChangeTokenException("Changes after token " + token + " are no longer available.");
+        }
+        long visibleToken = findVisibleToken();
+        StringBuilder sql = new StringBuilder("SELECT sequence, item_id, operation FROM ").append(changeTable)
+                .append(" WHERE sequence > ? AND sequence <= ?");
+        List<Object> parameters = new ArrayList<>(Arrays.asList(token, visibleToken));
+        if (visibilityLagMs > 0) {
+            sql.append(" AND changed_at < CURRENT_TIMESTAMP(3) - INTERVAL ? MICROSECOND");
+            parameters.add(visibilityLagMs * 1000);
+        }
+        sql.append(" ORDER BY sequence LIMIT ?");
+        parameters.add(limit);
+        return sqlExecutor.executeQuery(sql.toString(), parameters,
+                resultSet -> new ItemChange(resultSet.getLong(1), resultSet.getString(2),
+                        ItemChange.Operation.valueOf(resultSet.getString(3))));
+    }
+
+    /**
+     * @return The token of the most recent change handed out, or the horizon when nothing has been logged since.
+     */
+    long getLatestToken() {
+        long latest = findLatestToken(visibilityLagMs > 0);
+        latestToken.accumulateAndGet(latest, Math::max);
+        return Math.max(Math.min(latest, findVisibleToken()), horizon.get());
+    }
+
+    /**
+     * Removes the changes older than the retention period, except for the most recent one.
+     */
+    @Scheduled(fixedDelayString = "${item.changes.compaction-interval-ms}")
+    public void compact() {
+        Timestamp threshold = new Timestamp(System.currentTimeMillis() - retentionMs);
+        horizon.set(sqlExecutor.inTransaction(connection -> {
+            sqlExecutor.executeUpdate(connection, "DELETE FROM " + changeTable + " WHERE changed_at < ? AND sequence < ("
+                    + "SELECT latest.sequence FROM (SELECT MAX(sequence) AS sequence FROM " + changeTable + ") latest)",
+                    Collections.singletonList(threshold));
+            return findHorizon(connection);
+        }));
+    }
+
+    private void record(Write write, ItemChange.Operation operation, List<String> itemIds, List<Item> items)
+            throws SQLException {
+        List<Long> tokens = sqlExecutor.executeInsert(write.getConnection(),
+                "INSERT INTO " + changeTable + " (item_id, operation) VALUES (?, ?)",
+                itemIds.stream().map(itemId -> Arrays.asList(itemId, operation.name())).collect(Collectors.toList()));
+        if (write.changes.isEmpty()) {
+            // the tokens of a write only increase, so nothing below its first one is held back by it any longer
+            write.floor = tokens.get(0) - 1;
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            write.changes.add(new ItemChange(tokens.get(i), itemIds.get(i), operation, items.get(i)));
+        }
+        latestToken.accumulateAndGet(tokens.get(tokens.size() - 1), Math::max);
+    }
+
+    /**
+     * Returns the highest token of which all changes up to and including it are committed, as far as this instance
+     * knows. The latest token is read before the writes in progress, any write registered after that only logs tokens
+     * above it.
+     */
+    private long findVisibleToken() {
+        // with a visibility lag, the lag holds back the changes of the other instances instead of the latest token
+        long visibleToken = visibilityLagMs > 0 ? Long.MAX_VALUE : latestToken.get();
+        for (Write write : writesInProgress) {
+            visibleToken = Math.min(visibleToken, write.floor);
+        }
+        return visibleToken;
+    }
+
+    /**
+     * Calls the listeners with the committed changes up to the visible token, unless another thread is already doing
+     * so. Every thread that finishes a write calls this, so a change held back by an earlier write still in progress is
+     * delivered by the thread that finishes that write.
+     */
+    private void deliver() {
+        while (!undelivered.isEmpty() && deliveryLock.tryLock()) {
+            try {
+                long visibleToken = findVisibleToken();
+                ItemChange change = undelivered.peek();
+                while (change != null && change.getToken() <= visibleToken) {
+                    undelivered.remove();
+                    ItemChange delivered = change;
+                    listeners.forEach(listener -> listener.accept(delivered));
+                    change = undelivered.peek();
+                }
+            } finally {
+                deliveryLock.unlock();
+            }
+            // a write may have finished while the lock was held, its changes would be left behind otherwise
+            ItemChange next = undelivered.peek();
+            if (next == null || next.getToken() > findVisibleToken()) {
+                return;
+            }
+        }
+    }
+
+    private long findLatestToken(boolean settledOnly) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT MAX(sequence) FROM " + changeTable;
+        if (settledOnly) {
+            sql += " WHERE changed_at < CURRENT_TIMESTAMP(3) - INTERVAL ? MICROSECOND";
+            parameters.add(visibilityLagMs * 1000);
+        }
+        List<Long> latest = sqlExecutor.executeQuery(sql, parameters, resultSet -> resultSet.getLong(1));
+        return latest.isEmpty() ? 0 : latest.get(0);
+    }
+
+    private long findHorizon(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT MIN(sequence) FROM " + changeTable);
+             ResultSet resultSet = statement.executeQuery()) {
+            // the first remaining change directly follows the last removed one
+            return resultSet.next() && resultSet.getObject(1) != null ? resultSet.getLong(1) - 1 : 0;
+        }
+    }
+
+    /**
+     * A single write in progress, passed to the work of {@link #write(SqlFunction)}.
+     */
+    static final class Write {
+        private final List<ItemChange> changes = new ArrayList<>();
+        private Connection connection;
+        // every token this write logs is above the floor
+        private volatile long floor;
+
+        private Write(long floor) {
+            this.floor = floor;
+        }
+
+        /**
+         * @return The connection of the transaction of the write.
+         */
+        Connection getConnection() {
+            return connection;
+        }
+
+        private Write begin(Connection connection) {
+            this.connection = connection;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ractoc.tutorials.speedment.service;
+
+import java.util.Optional;
+
+/**
+ * The fields of an item a caller can select, each with the column it is stored in.
+ */
+public enum ItemField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    LEAD("lead", "lead"),
+    ITEM_TYPE("itemType", "item_type"),
+    VERSION("version", "version");
+
+    private final String fieldName;
+    private final String columnName;
+
+    ItemField(String fieldName, String columnName) {
+        this.fieldName = fieldName;
+        this.columnName = columnName;
+    }
+
+    /**
+     * @return The name of the field in the API models.
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * @param fieldName The name of the field in the API models.
+     * @return The field with the supplied name, or empty when there is no such field.
+     */
+    public static Optional<ItemField> fromFieldName(String fieldName) {
+        for (ItemField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
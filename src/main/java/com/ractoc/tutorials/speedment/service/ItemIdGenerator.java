@@ -0,0 +1,13 @@
+package com.ractoc.tutorials.speedment.service;
+
+/**
+ * Strategy for generating the ids of new items. Generated ids are UUIDs in their canonical string form, so they
+ * always match the {@link com.ractoc.tutorials.speedment.validators.UuidPattern}.
+ */
+public interface ItemIdGenerator {
+
+    /**
+     * @return A new, unique item id.
+     */
+    String nextId();
+}
@@ -0,0 +1,252 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemImpl;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * In-memory index of the item table. Items are indexed on their id and on their normalized name, which backs the
+ * case insensitive name lookups. The ids are also partitioned per item type, each partition sorted by id, so the items
+ * of a type can be paged through without looking at the items of the other types. The index only holds copies of the
+ * items, so changes made to an item after it has been indexed (or returned) are not visible until the item is put into
+ * the index again.
+ * <p>
+ * The writers update the index after their transaction is committed, so concurrent writes of the same item may reach
+ * the index out of order. A put never replaces a higher version of the item, and a removed item leaves a tombstone
+ * holding its last version behind, so an update committed before the delete can not bring it back. The tombstones
+ * are dropped after a minute, long after the writes that were in progress during the delete have been indexed.
+ */
+class ItemIndex {
+
+    private static final long TOMBSTONE_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Item> itemsById = new ConcurrentHashMap<>();
+    private final Map<String, Item> itemsByName = new ConcurrentHashMap<>();
+    // holds a set for every item type up front, so the map itself never changes
+    private final Map<GeneratedItem.ItemType, NavigableSet<String>> idsByType = new EnumMap<>(GeneratedItem.ItemType.class);
+    private final Map<String, Tombstone> tombstonesById = new ConcurrentHashMap<>();
+    // the tombstones in the order they were created, guarded by the lock of the index
+    private final Queue<Tombstone> tombstones = new ArrayDeque<>();
+
+    /**
+     * Creates a new index containing all the supplied items. The supplied stream is closed once it has been consumed.
+     *
+     * @param items The items to load into the index.
+     */
+    ItemIndex(Stream<Item> items) {
+        for (GeneratedItem.ItemType itemType : GeneratedItem.ItemType.values()) {
+            idsByType.put(itemType, new ConcurrentSkipListSet<>());
+        }
+        try (Stream<Item> source = items) {
+            source.forEach(this::put);
+        }
+    }
+
+    Optional<Item> findById(String id) {
+        return Optional.ofNullable(itemsById.get(normalize(id))).map(ItemIndex::copyOf);
+    }
+
+    Optional<Item> findByName(String name) {
+        return Optional.ofNullable(itemsByName.get(normalize(name))).map(ItemIndex::copyOf);
+    }
+
+    /**
+     * @param id The id to look for.
+     * @return True when an item with the id is indexed, or was removed less than a minute ago.
+     */
+    boolean containsId(String id) {
+        return itemsById.containsKey(normalize(id)) || tombstonesById.containsKey(normalize(id));
+    }
+
+    int size() {
+        return itemsById.size();
+    }
+
+    /**
+     * Returns the items of the supplied types, ordered by id. The items are looked up while the stream is consumed, so
+     * only the items of the supplied types are visited.
+     *
+     * @param itemTypes The types of the items to return.
+     * @param after     The id after which to start, or null to start with the first item.
+     * @return The stream of items.
+     */
+    Stream<Item> findByTypes(Set<GeneratedItem.ItemType> itemTypes, String after) {
+        List<Iterator<String>> partitions = new ArrayList<>();
+        for (GeneratedItem.ItemType itemType : itemTypes) {
+            NavigableSet<String> ids = idsByType.get(itemType);
+            partitions.add((after == null ? ids : ids.tailSet(normalize(after), false)).iterator());
+        }
+        Iterator<String> mergedIds = partitions.size() == 1 ? partitions.get(0) : new MergingIterator(partitions);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(mergedIds, Spliterator.ORDERED), false)
+                .map(itemsById::get)
+                // the item may have been removed since its id was read
+                .filter(Objects::nonNull)
+                .map(ItemIndex::copyOf);
+    }
+
+    /**
+     * @return The indexed items, in no particular order. These are not copies, so they must not be changed.
+     */
+    Stream<Item> items() {
+        return itemsById.values().stream();
+    }
+
+    /**
+     * Adds the item to the index, or replaces the indexed version of the item when it is already present. Nothing
+     * changes when a higher version of the item is indexed, or when the item has been removed.
+     *
+     * @param item The item to index.
+     * @return True when the item was indexed.
+     */
+    synchronized boolean put(Item item) {
+        String id = normalize(item.getId());
+        Tombstone tombstone = tombstonesById.get(id);
+        Item currentItem = itemsById.get(id);
+        if ((tombstone != null && tombstone.version >= item.getVersion())
+                || (currentItem != null && currentItem.getVersion() > item.getVersion())) {
+            return false;
+        }
+        Item indexedItem = copyOf(item);
+        Item previousItem = itemsById.put(id, indexedItem);
+        if (previousItem != null) {
+            itemsByName.remove(normalize(previousItem.getName()), previousItem);
+            removeFromType(previousItem);
+        }
+        itemsByName.put(normalize(item.getName()), indexedItem);
+        if (item.getItemType() != null) {
+            idsByType.get(item.getItemType()).add(id);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the item from the index, and keeps the item from being indexed again up to the supplied version.
+     *
+     * @param id      The id of the item to remove.
+     * @param version The version of the item that was deleted.
+     * @return The removed item, or empty when the item was not indexed.
+     */
+    synchronized Optional<Item> remove(String id, int version) {
+        long now = System.nanoTime();
+        Tombstone oldest;
+        while ((oldest = tombstones.peek()) != null && now - oldest.createdAt > TOMBSTONE_RETENTION_NANOS) {
+            tombstones.remove();
+            tombstonesById.remove(oldest.id, oldest);
+        }
+        Tombstone tombstone = new Tombstone(normalize(id), version, now);
+        tombstonesById.put(tombstone.id, tombstone);
+        tombstones.add(tombstone);
+        Item previousItem = itemsById.remove(tombstone.id);
+        if (previousItem != null) {
+            itemsByName.remove(normalize(previousItem.getName()), previousItem);
+            removeFromType(previousItem);
+        }
+        return Optional.ofNullable(previousItem).map(ItemIndex::copyOf);
+    }
+
+    private void removeFromType(Item item) {
+        if (item.getItemType() != null) {
+            idsByType.get(item.getItemType()).remove(normalize(item.getId()));
+        }
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Merges the ascending ids of several partitions into a single ascending sequence.
+     */
+    private static final class MergingIterator implements Iterator<String> {
+        private final PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(
+                Comparator.comparing((PeekingIterator iterator) -> iterator.head));
+
+        private MergingIterator(List<Iterator<String>> partitions) {
+            for (Iterator<String> partition : partitions) {
+                if (partition.hasNext()) {
+                    heads.add(new PeekingIterator(partition));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            PeekingIterator iterator = heads.poll();
+            if (iterator == null) {
+                throw new NoSuchElementException();
+            }
+            String id = iterator.head;
+            if (iterator.advance()) {
+                heads.add(iterator);
+            }
+            return id;
+        }
+    }
+
+    private static final class Tombstone {
+        private final String id;
+        private final int version;
+        private final long createdAt;
+
+        private Tombstone(String id, int version, long createdAt) {
+            this.id = id;
+            this.version = version;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class PeekingIterator {
+        private final Iterator<String> iterator;
+        private String head;
+
+        private PeekingIterator(Iterator<String> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        private boolean advance() {
+            if (iterator.hasNext()) {
+                head = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static Item copyOf(Item item) {
+        return new ItemImpl()
+                .setId(item.getId())
+                .setName(item.getName())
+                .setLead(item.getLead())
+                .setItemType(item.getItemType())
+                .setVersion(item.getVersion());
+    }
+}
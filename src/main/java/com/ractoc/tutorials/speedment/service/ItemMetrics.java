@@ -0,0 +1,107 @@
+package com.ractoc.tutorials.speedment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Records the database operations of the {@link ItemService}. Every operation is timed, tagged with the name of the
+ * operation and its outcome. Failed operations and rejected duplicate names are counted separately as well.
+ * <p>
+ * The operation names follow the Speedment log types: stream, persist, update and remove.
+ */
+@Component
+public class ItemMetrics {
+
+    static final String OPERATION_TIMER = "item.db.operations";
+    static final String ERROR_COUNTER = "item.db.errors";
+    static final String DUPLICATE_COUNTER = "item.duplicates";
+
+    private static final String OPERATION_TAG = "operation";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String EXCEPTION_TAG = "exception";
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public ItemMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times the supplied database operation.
+     *
+     * @param operation The name of the operation.
+     * @param work      The operation to time.
+     * @param <T>       The type of the result of the operation.
+     * @return The result of the operation.
+     */
+    public <T> T record(String operation, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            T result = work.get();
+            sample.stop(timer(operation, SUCCESS));
+            return result;
+        } catch (RuntimeException e) {
+            sample.stop(timer(operation, ERROR));
+            errorCounter(operation, e).increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Times a streaming read, from the moment the stream is created until it is closed. Streams which are never
+     * closed are not recorded.
+     *
+     * @param work The operation which creates the stream.
+     * @param <T>  The type of the elements of the stream.
+     * @return The stream, which stops the timer when it is closed.
+     */
+    public <T> Stream<T> recordStream(Supplier<Stream<T>> work) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return work.get().onClose(() -> sample.stop(timer("stream", SUCCESS)));
+        } catch (RuntimeException e) {
+            sample.stop(timer("stream", ERROR));
+            errorCounter("stream", e).increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Counts an item which was rejected because its name is already in use.
+     *
+     * @param operation The name of the operation which rejected the item.
+     */
+    public void duplicate(String operation) {
+        Counter.builder(DUPLICATE_COUNTER)
+                .description("Items rejected because their name already exists")
+                .tag(OPERATION_TAG, operation)
+                .register(registry)
+                .increment();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder(OPERATION_TIMER)
+                .description("Database operations on the item table")
+                .tag(OPERATION_TAG, operation)
+                .tag(OUTCOME_TAG, outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter errorCounter(String operation, RuntimeException e) {
+        return Counter.builder(ERROR_COUNTER)
+                .description("Failed database operations on the item table")
+                .tag(OPERATION_TAG, operation)
+                .tag(EXCEPTION_TAG, e.getClass().getSimpleName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,257 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the words in the name and lead of the items. The words are kept sorted, so all words
+ * starting with a prefix are found with a single range lookup.
+ * <p>
+ * Every word of a query has to match the start of a word in the name or the lead of an item. The matching items are
+ * ranked on where and how well the words match, matches on the name count more than matches on the lead. Equally
+ * ranked items are ordered on the length of their name, shortest first.
+ * <p>
+ * Only the longest word of a query is looked up in the sorted words, the other words are checked against the items
+ * found for it. A query word shorter than {@link #MIN_PREFIX_LENGTH} only matches a whole word, as a single letter
+ * would otherwise be the prefix of a large part of the index. The items found for a word are capped, so a short
+ * prefix never visits more than a fixed number of items, at the cost of ranking only the first items found.
+ */
+class ItemSearchIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_CANDIDATES = 10_000;
+
+    private static final int NAME_EQUALS_SCORE = 100;
+    private static final int NAME_STARTS_WITH_SCORE = 50;
+    private static final int NAME_WORD_SCORE = 10;
+    private static final int NAME_PREFIX_SCORE = 6;
+    private static final int LEAD_WORD_SCORE = 3;
+    private static final int LEAD_PREFIX_SCORE = 1;
+
+    private final int maxCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<String>> idsByWord = new TreeMap<>();
+    private final Map<String, Document> documentsById = new HashMap<>();
+
+    /**
+     * Creates a new index containing all the supplied items. The supplied stream is closed once it has been consumed.
+     *
+     * @param items The items to load into the index.
+     */
+    ItemSearchIndex(Stream<Item> items) {
+        this(items, MAX_CANDIDATES);
+    }
+
+    ItemSearchIndex(Stream<Item> items, int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+        try (Stream<Item> source = items) {
+            source.forEach(this::put);
+        }
+    }
+
+    /**
+     * Adds the item to the index, or replaces the indexed words of the item when it is already present.
+     *
+     * @param item The item to index.
+     */
+    void put(Item item) {
+        Document document = new Document(item.getId(), item.getName(), item.getLead());
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentsById.put(document.id, document));
+            for (String word : document.words()) {
+                idsByWord.computeIfAbsent(word, key -> new HashSet<>()).add(document.id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentsById.remove(normalize(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the items matching all words in the query, best match first.
+     *
+     * @param query The words to search for, the last one is usually incomplete.
+     * @param limit The maximum number of results.
+     * @return The ids of the matching items.
+     */
+    List<String> search(String query, int limit) {
+        String normalizedQuery = normalize(query).trim();
+        List<String> queryWords = split(normalizedQuery);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            // the longest word has the narrowest range of words, the other words only filter the items found for it
+            String longestWord = Collections.max(queryWords, Comparator.comparingInt(String::length));
+            Set<String> candidates = findCandidates(longestWord);
+            List<String> otherWords = new ArrayList<>(queryWords);
+            otherWords.remove(longestWord);
+            for (String queryWord : otherWords) {
+                candidates.removeIf(id -> !documentsById.get(id).matches(queryWord));
+            }
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+            // keep the worst of the best results at the head, so it is the one replaced by a better match
+            Comparator<Result> ranking = Comparator.comparingInt((Result result) -> result.score)
+                    .thenComparing(result -> result.document.name.length(), Comparator.reverseOrder())
+                    .thenComparing(result -> result.document.name, Comparator.reverseOrder());
+            PriorityQueue<Result> best = new PriorityQueue<>(limit + 1, ranking);
+            for (String id : candidates) {
+                Document document = documentsById.get(id);
+                best.add(new Result(document, document.score(normalizedQuery, queryWords)));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<String> ids = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                ids.add(best.poll().document.id);
+            }
+            Collections.reverse(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> findCandidates(String queryWord) {
+        String end = queryWord.length() < MIN_PREFIX_LENGTH ? queryWord : queryWord + Character.MAX_VALUE;
+        Set<String> ids = new HashSet<>();
+        for (Set<String> wordIds : idsByWord.subMap(queryWord, true, end, true).values()) {
+            for (String id : wordIds) {
+                ids.add(id);
+                if (ids.size() >= maxCandidates) {
+                    return ids;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void removeDocument(Document document) {
+        if (document == null) {
+            return;
+        }
+        for (String word : document.words()) {
+            Set<String> ids = idsByWord.get(word);
+            if (ids != null) {
+                ids.remove(document.id);
+                if (ids.isEmpty()) {
+                    idsByWord.remove(word);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> split(String value) {
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(value)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static final class Document {
+        private final String id;
+        private final String name;
+        private final List<String> nameWords;
+        private final List<String> leadWords;
+
+        private Document(String id, String name, String lead) {
+            this.id = normalize(id);
+            this.name = normalize(name);
+            this.nameWords = split(this.name);
+            this.leadWords = split(normalize(lead));
+        }
+
+        private Set<String> words() {
+            Set<String> words = new HashSet<>(nameWords);
+            words.addAll(leadWords);
+            return words;
+        }
+
+        private boolean matches(String queryWord) {
+            return matches(nameWords, queryWord) || matches(leadWords, queryWord);
+        }
+
+        private static boolean matches(List<String> words, String queryWord) {
+            for (String word : words) {
+                if (queryWord.length() < MIN_PREFIX_LENGTH ? word.equals(queryWord) : word.startsWith(queryWord)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int score(String query, List<String> queryWords) {
+            int score = 0;
+            if (name.equals(query)) {
+                score += NAME_EQUALS_SCORE;
+            } else if (name.startsWith(query)) {
+                score += NAME_STARTS_WITH_SCORE;
+            }
+            for (String queryWord : queryWords) {
+                // a word only counts once, where it matches best
+                score += Math.max(score(nameWords, queryWord, NAME_WORD_SCORE, NAME_PREFIX_SCORE),
+                        score(leadWords, queryWord, LEAD_WORD_SCORE, LEAD_PREFIX_SCORE));
+            }
+            return score;
+        }
+
+        private static int score(List<String> words, String queryWord, int wordScore, int prefixScore) {
+            int score = 0;
+            for (String word : words) {
+                if (word.equals(queryWord)) {
+                    return wordScore;
+                } else if (word.startsWith(queryWord)) {
+                    score = prefixScore;
+                }
+            }
+            return score;
+        }
+    }
+
+    private static final class Result {
+        private final Document document;
+        private final int score;
+
+        private Result(Document document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
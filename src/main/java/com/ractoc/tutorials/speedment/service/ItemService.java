@@ -1,101 +1,548 @@
 package com.ractoc.tutorials.speedment.service;
 
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemImpl;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemManager;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
 import com.speedment.runtime.core.exception.SpeedmentException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem.ID;
-import static com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem.NAME;
-
-
 @Service
 public class ItemService {
 
     private static final String ITEM_NOT_FOUND = "Item with %s %s not found";
+    private static final String ITEM_EXISTS = "Item with name %s already exists.";
+    // MariaDB / MySQL error code for a violated unique key
+    private static final int ER_DUP_ENTRY = 1062;
+    private static final String NAME_UNIQUE_KEY = "name_UNIQUE";
+    // keeps the IN list of a single delete statement well below the max_allowed_packet size
+    private static final int DELETE_CHUNK_SIZE = 500;
+    // every item has a type, so the partitions of all types together hold all items
+    private static final Set<GeneratedItem.ItemType> ALL_TYPES =
+            Collections.unmodifiableSet(EnumSet.allOf(GeneratedItem.ItemType.class));
     private final ItemManager itemManager;
+    private final ItemChangeLog changeLog;
+    private final ItemSqlExecutor sqlExecutor;
+    private final ItemIdGenerator idGenerator;
+    private final ItemMetrics metrics;
+    private final DatabaseAccessLimiter limiter;
+    private final ItemIndex itemIndex;
+    private final ItemSearchIndex searchIndex;
+    private final ItemTypeCounters typeCounters;
+    // keeps the search index in line with the id index when an item is written concurrently
+    private final Object indexLock = new Object();
+    // incremented after every write that changed a row, so readers can tell if anything changed
+    private final AtomicLong changeCount = new AtomicLong();
 
     @Autowired
-    public ItemService(ItemManager itemManager) {
+    public ItemService(ItemManager itemManager, ItemChangeLog changeLog, ItemSqlExecutor sqlExecutor,
+                       ItemIdGenerator idGenerator, ItemMetrics metrics, DatabaseAccessLimiter limiter) {
         this.itemManager = itemManager;
+        this.changeLog = changeLog;
+        this.sqlExecutor = sqlExecutor;
+        this.idGenerator = idGenerator;
+        this.metrics = metrics;
+        this.limiter = limiter;
+        // point lookups are served from memory, the index is kept up to date by the write methods below
+        this.itemIndex = new ItemIndex(stream());
+        this.searchIndex = new ItemSearchIndex(itemIndex.items());
+        this.typeCounters = new ItemTypeCounters(countByType());
     }
 
     public Stream<Item> getItemList() {
-        return itemManager.stream();
+        return stream();
+    }
+
+    /**
+     * Returns a single page of items, ordered by id. The page is read from the in-memory index, like the pages of the
+     * item types, by walking the id sorted partitions of all types. Pages with and without a type filter therefore hold
+     * the same items, in the same order, and the database is not touched.
+     *
+     * @param after The id of the last item of the previous page, or null to start at the first page.
+     * @param limit The maximum number of items to return.
+     * @return The stream of items on the requested page.
+     */
+    public Stream<Item> getItemList(String after, long limit) {
+        return getItemList(after, limit, ALL_TYPES);
+    }
+
+    /**
+     * @param itemTypes The types of the items to return.
+     * @return The stream of all items of the supplied types, ordered by id.
+     */
+    public Stream<Item> getItemList(Set<GeneratedItem.ItemType> itemTypes) {
+        return getItemList(null, Long.MAX_VALUE, itemTypes);
+    }
+
+    /**
+     * Returns a single page of items of the supplied types, ordered by id. The page is read from the per type
+     * partitions of the in-memory index, so only the items of the requested types are visited and the database is not
+     * touched.
+     *
+     * @param after     The id of the last item of the previous page, or null to start at the first page.
+     * @param limit     The maximum number of items to return.
+     * @param itemTypes The types of the items to return.
+     * @return The stream of items on the requested page.
+     */
+    public Stream<Item> getItemList(String after, long limit, Set<GeneratedItem.ItemType> itemTypes) {
+        return itemIndex.findByTypes(itemTypes, after).limit(limit);
+    }
+
+    /**
+     * Returns a single page of items, ordered by id, with only the supplied fields filled. The SELECT only lists the
+     * columns of those fields, together with the type filter, id filter, sort and limit
+     * (SELECT id, name FROM item WHERE item_type IN (?) AND id > ? ORDER BY id LIMIT ?), so the other columns are never
+     * read or transferred. The id is always selected, it is the cursor of the next page. This is the only page read
+     * from the database instead of the index, it is ordered and filtered on the id like the other pages.
+     *
+     * @param after     The id of the last item of the previous page, or null to start at the first page.
+     * @param limit     The maximum number of items to return, Long.MAX_VALUE for all items.
+     * @param itemTypes The types of the items to return, null or empty for all types.
+     * @param fields    The fields to fill.
+     * @return The items on the requested page.
+     */
+    public List<Item> getItemList(String after, long limit, Set<GeneratedItem.ItemType> itemTypes,
+                                  Set<ItemField> fields) {
+        boolean allTypes = itemTypes == null || itemTypes.isEmpty();
+        Set<ItemField> selectedFields = EnumSet.of(ItemField.ID);
+        selectedFields.addAll(fields);
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(selectedFields.stream().map(ItemField::getColumnName).collect(Collectors.joining(", ")))
+                .append(" FROM ").append(sqlExecutor.getItemTable());
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (!allTypes) {
+            conditions.add("item_type IN (" + String.join(", ", Collections.nCopies(itemTypes.size(), "?")) + ")");
+            itemTypes.forEach(itemType -> parameters.add(toDatabase(itemType)));
+        }
+        if (after != null) {
+            conditions.add("id > ?");
+            parameters.add(after);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY id");
+        if (limit < Long.MAX_VALUE) {
+            sql.append(" LIMIT ?");
+            parameters.add(limit);
+        }
+        return execute("read_fields", () -> sqlExecutor.executeQuery(sql.toString(), parameters,
+                resultSet -> readFields(resultSet, selectedFields)));
+    }
+
+    public long getItemCount() {
+        return itemIndex.size();
+    }
+
+    /**
+     * @param itemTypes The types of the items to count.
+     * @return The number of items of the supplied types.
+     */
+    public long getItemCount(Set<GeneratedItem.ItemType> itemTypes) {
+        return typeCounters.count(itemTypes);
+    }
+
+    /**
+     * Returns the number of items per item type. The counts are read from the database once, at start up, and kept
+     * up to date by the write methods, so this never touches the database.
+     *
+     * @return The number of items of every type, including the types without items.
+     */
+    public Map<GeneratedItem.ItemType, Long> getItemCountsByType() {
+        return typeCounters.counts();
+    }
+
+    /**
+     * @return The number of writes to the item table since this service was started.
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    public OptionalInt getItemVersionById(String id) {
+        return itemIndex.findById(id).map(item -> OptionalInt.of(item.getVersion())).orElseGet(OptionalInt::empty);
+    }
+
+    public Optional<String> getItemIdByName(String name) {
+        return itemIndex.findByName(name).map(Item::getId);
     }
 
     public Item getItemByName(String name) {
-        Optional<Item> item = itemManager.stream()
-                .filter(NAME.equalIgnoreCase(name)).findAny();
+        Optional<Item> item = itemIndex.findByName(name);
         return item.orElseThrow(() -> new NoSuchEntryException(String.format(ITEM_NOT_FOUND, "name", name)));
     }
 
+    /**
+     * Searches the name and lead of the items for words starting with the words in the query. The search is served
+     * from memory, the best matches are returned first.
+     *
+     * @param query The words to search for.
+     * @param limit The maximum number of items to return.
+     * @return The matching items.
+     */
+    public List<Item> searchItems(String query, int limit) {
+        return searchIndex.search(query, limit).stream()
+                .map(itemIndex::findById)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the creates, updates and deletes committed after the supplied token, in the order they were committed.
+     *
+     * @param token The token of the last change the caller has seen.
+     * @param limit The maximum number of changes to return.
+     * @return The changes after the token.
+     * @throws ExpiredChangeTokenException The changes directly after the token are no longer retained, the caller
+     *                                     has to reload all items.
+     */
+    public List<ItemChange> getChanges(long token, int limit) {
+        return execute("read_changes", () -> changeLog.findAfter(token, limit));
+    }
+
+    /**
+     * @return The token of the most recent change, to ask for the changes after a full load of the items.
+     */
+    public long getLatestChangeToken() {
+        return execute("read_changes", changeLog::getLatestToken);
+    }
+
+    /**
+     * Registers a listener for the creates, updates and deletes committed from now on. The listener is called on one
+     * of the writing threads after the commit, in the order of the change tokens, so it should hand the change off
+     * instead of processing it.
+     *
+     * @param listener The listener to call with every change.
+     */
+    public void addChangeListener(Consumer<ItemChange> listener) {
+        changeLog.addListener(listener);
+    }
+
     public Item getItemById(String id) {
-        Optional<Item> item = itemManager.stream()
-                .filter(ID.equalIgnoreCase(id)).findAny();
+        Optional<Item> item = itemIndex.findById(id);
         return item.orElseThrow(() -> new NoSuchEntryException(String.format(ITEM_NOT_FOUND, "id", id)));
     }
 
     public Item saveItem(Item item) {
         try {
             createIdForItem(item);
-            Optional<Item> existingItem = itemManager.stream()
-                    .filter(NAME.equalIgnoreCase(item.getName())).findAny();
+            // fail fast on names we know about, the name_UNIQUE constraint catches concurrent creates
+            Optional<Item> existingItem = itemIndex.findByName(item.getName());
             if (existingItem.isPresent()) {
-                throw new DuplicateEntryException("Item with name " + item.getName() + " already exists.");
+                metrics.duplicate("persist");
+                throw new DuplicateEntryException(String.format(ITEM_EXISTS, item.getName()));
             }
-            return itemManager.persist(item);
+            Item savedItem = execute("persist", () -> changeLog.write(write -> insert(write, Collections.singletonList(item)).get(0)));
+            index(savedItem);
+            typeCounters.added(savedItem.getItemType());
+            changeCount.incrementAndGet();
+            return savedItem;
         } catch (SpeedmentException e) {
+            if (isDuplicateName(e)) {
+                metrics.duplicate("persist");
+                throw new DuplicateEntryException(String.format(ITEM_EXISTS, item.getName()), e);
+            }
             throw new ServiceException("Unable to save item " + item.getName(), e);
         }
     }
 
-    public Item updateItem(Item item) {
+    /**
+     * Saves all supplied items in a single transaction. Either all items are saved, or none of them are.
+     * The names are checked against each other and against the existing items before anything is written.
+     *
+     * @param items The new items to save.
+     * @return The saved items, in the same order as they were supplied.
+     */
+    public List<Item> saveItems(List<Item> items) {
+        Set<String> names = new HashSet<>();
+        for (Item item : items) {
+            if (!names.add(item.getName().toLowerCase(Locale.ROOT))) {
+                metrics.duplicate("persist_batch");
+                throw new DuplicateEntryException("Item with name " + item.getName() + " occurs more than once.");
+            }
+            if (itemIndex.findByName(item.getName()).isPresent()) {
+                metrics.duplicate("persist_batch");
+                throw new DuplicateEntryException(String.format(ITEM_EXISTS, item.getName()));
+            }
+        }
+        try {
+            items.forEach(this::createIdForItem);
+            List<Item> savedItems = execute("persist_batch", () -> changeLog.write(write -> insert(write, items)));
+            savedItems.forEach(this::index);
+            savedItems.forEach(savedItem -> typeCounters.added(savedItem.getItemType()));
+            changeCount.incrementAndGet();
+            return savedItems;
+        } catch (SpeedmentException e) {
+            if (isDuplicateName(e)) {
+                metrics.duplicate("persist_batch");
+                throw new DuplicateEntryException("One of the item names already exists.", e);
+            }
+            throw new ServiceException("Unable to save " + items.size() + " items", e);
+        }
+    }
+
+    /**
+     * Updates the item, provided the version of the item in the database is still the expected version. The row is
+     * locked and read first, in the same transaction as the UPDATE, which tells a deleted item apart from a stale
+     * version and gives the type counters the type the update replaced. The version is incremented with every update.
+     *
+     * @param item            The new state of the item.
+     * @param expectedVersion The version the caller based the update on, or null to update the current version.
+     * @return The updated item, containing its new version.
+     */
+    public Item updateItem(Item item, Integer expectedVersion) {
         try {
             // first check validity of the ID
-            Item currentItem = itemManager.stream()
-                    .filter(ID.equal(item.getId()))
-                    .findAny()
+            Item currentItem = itemIndex.findById(item.getId())
                     .orElseThrow(() -> new NoSuchEntryException(String.format(ITEM_NOT_FOUND, "id", item.getId())));
             if (!currentItem.getName().equals(item.getName())) {
                 // If the name has changed check it.
-                Optional<Item> existingItem = itemManager.stream()
-                        .filter(NAME.equalIgnoreCase(item.getName()))
-                        .findAny();
+                Optional<Item> existingItem = itemIndex.findByName(item.getName());
                 if (existingItem.isPresent()) {
-                    throw new DuplicateEntryException("Item with name " + item.getName() + " already exists.");
+                    metrics.duplicate("update");
+                    throw new DuplicateEntryException(String.format(ITEM_EXISTS, item.getName()));
                 }
             }
-            // then update the item
-            return itemManager.update(item);
+            // then update the item, provided nobody else updated it in the meantime
+            int version = expectedVersion != null ? expectedVersion : currentItem.getVersion();
+            // the row is locked before it is updated, so its previous type is the one this update replaces
+            Item previousItem = execute("update", () -> changeLog.write(write -> {
+                List<Item> rows = sqlExecutor.executeQuery(write.getConnection(), "SELECT item_type, version FROM "
+                                + sqlExecutor.getItemTable() + " WHERE id = ? FOR UPDATE", Collections.singletonList(item.getId()),
+                        resultSet -> new ItemImpl()
+                                .setItemType(GeneratedItem.ItemType.fromDatabase(resultSet.getString(1)))
+                                .setVersion(resultSet.getInt(2)));
+                if (rows.isEmpty()) {
+                    return null;
+                }
+                Item lockedItem = rows.get(0);
+                if (lockedItem.getVersion() == version) {
+                    sqlExecutor.executeUpdate(write.getConnection(), "UPDATE " + sqlExecutor.getItemTable()
+                                    + " SET name = ?, lead = ?, item_type = ?, version = version + 1 WHERE id = ?",
+                            Arrays.asList(item.getName(), item.getLead(), toDatabase(item.getItemType()), item.getId()));
+                    changeLog.record(write, ItemChange.Operation.UPDATE, ItemIndex.copyOf(item).setVersion(version + 1));
+                }
+                return lockedItem;
+            }));
+            if (previousItem == null) {
+                // deleted since it was read from the index
+                throw new NoSuchEntryException(String.format(ITEM_NOT_FOUND, "id", item.getId()));
+            }
+            if (previousItem.getVersion() != version) {
+                throw new StaleEntryException("Item with id " + item.getId() + " was changed since version " + version);
+            }
+            item.setVersion(version + 1);
+            index(item);
+            typeCounters.changed(previousItem.getItemType(), item.getItemType());
+            changeCount.incrementAndGet();
+            return item;
         } catch (SpeedmentException e) {
+            if (isDuplicateName(e)) {
+                metrics.duplicate("update");
+                throw new DuplicateEntryException(String.format(ITEM_EXISTS, item.getName()), e);
+            }
             throw new ServiceException("Unable to update item " + item.getName(), e);
         }
     }
 
     public void deleteItem(String id) {
         try {
-            Optional<Item> existingItem = itemManager.stream().filter(ID.equal(id)).findAny();
-            // if no item is present with the requested ID, just report it as successfully removed.
-            existingItem.ifPresent(itemManager::remove);
+            // if no item is present with the requested ID, the delete simply affects no rows,
+            // so there is no need to read the item first.
+            List<Item> removedItems = execute("remove", () -> changeLog.write(write ->
+                    changeLog.remove(write, "id = ?", Collections.singletonList(id))));
+            removedItems.forEach(this::unindex);
+            if (!removedItems.isEmpty()) {
+                changeCount.incrementAndGet();
+            }
         } catch (SpeedmentException e) {
             throw new ServiceException("Unable to delete item " + id, e);
         }
     }
 
+    /**
+     * Deletes all items with the supplied ids, using as few DELETE statements as possible.
+     * All statements are executed in a single transaction. Unknown ids are ignored.
+     *
+     * @param ids The ids of the items to delete.
+     * @return The number of deleted items.
+     */
+    public int deleteItems(List<String> ids) {
+        try {
+            List<Item> removedItems = execute("remove_batch", () -> changeLog.write(write -> {
+                List<Item> items = new ArrayList<>();
+                for (int start = 0; start < ids.size(); start += DELETE_CHUNK_SIZE) {
+                    List<String> chunk = ids.subList(start, Math.min(start + DELETE_CHUNK_SIZE, ids.size()));
+                    String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                    items.addAll(changeLog.remove(write, "id IN (" + placeholders + ")", chunk));
+                }
+                return items;
+            }));
+            removedItems.forEach(this::unindex);
+            if (!removedItems.isEmpty()) {
+                changeCount.incrementAndGet();
+            }
+            return removedItems.size();
+        } catch (SpeedmentException e) {
+            throw new ServiceException("Unable to delete " + ids.size() + " items", e);
+        }
+    }
+
+    /**
+     * Deletes all items of the supplied type with a single DELETE statement.
+     *
+     * @param itemType The type of the items to delete.
+     * @return The number of deleted items.
+     */
+    public int deleteItemsByType(GeneratedItem.ItemType itemType) {
+        try {
+            List<String> parameters = Collections.singletonList(toDatabase(itemType));
+            List<Item> removedItems = execute("remove_by_type", () -> changeLog.write(write ->
+                    changeLog.remove(write, "item_type = ?", parameters)));
+            removedItems.forEach(this::unindex);
+            if (!removedItems.isEmpty()) {
+                changeCount.incrementAndGet();
+            }
+            return removedItems.size();
+        } catch (SpeedmentException e) {
+            throw new ServiceException("Unable to delete items of type " + itemType, e);
+        }
+    }
+
+    private void index(Item item) {
+        // the id index decides which version of the item is the latest, the search index follows it
+        synchronized (indexLock) {
+            if (itemIndex.put(item)) {
+                searchIndex.put(item);
+            }
+        }
+    }
+
+    /**
+     * Inserts the items and their changes, each as a single batch, so a batch of items costs two round-trips.
+     */
+    private List<Item> insert(ItemChangeLog.Write write, List<Item> items) throws SQLException {
+        sqlExecutor.executeBatch(write.getConnection(), "INSERT INTO " + sqlExecutor.getItemTable()
+                        + " (id, name, lead, item_type, version) VALUES (?, ?, ?, ?, ?)",
+                items.stream()
+                        .map(item -> Arrays.asList(item.getId(), item.getName(), item.getLead(),
+                                toDatabase(item.getItemType()), item.getVersion()))
+                        .collect(Collectors.toList()));
+        changeLog.record(write, ItemChange.Operation.CREATE, items);
+        return items;
+    }
+
+    /**
+     * @param item The deleted item, holding its id, type and version as they were in the database.
+     */
+    private void unindex(Item item) {
+        synchronized (indexLock) {
+            itemIndex.remove(item.getId(), item.getVersion());
+            searchIndex.remove(item.getId());
+        }
+        typeCounters.removed(item.getItemType());
+    }
+
+    private Map<GeneratedItem.ItemType, Long> countByType() {
+        // a single GROUP BY instead of streaming the table, the counters are kept up to date from here on
+        List<Map.Entry<String, Long>> rows = execute("count_by_type", () -> sqlExecutor.executeQuery(
+                "SELECT item_type, COUNT(*) FROM " + sqlExecutor.getItemTable() + " GROUP BY item_type",
+                Collections.emptyList(),
+                resultSet -> new AbstractMap.SimpleImmutableEntry<>(resultSet.getString(1), resultSet.getLong(2))));
+        Map<GeneratedItem.ItemType, Long> counts = new EnumMap<>(GeneratedItem.ItemType.class);
+        for (Map.Entry<String, Long> row : rows) {
+            if (row.getKey() != null) {
+                counts.put(GeneratedItem.ItemType.fromDatabase(row.getKey()), row.getValue());
+            }
+        }
+        return counts;
+    }
+
+    private static Item readFields(ResultSet resultSet, Set<ItemField> fields) throws SQLException {
+        Item item = new ItemImpl();
+        for (ItemField field : fields) {
+            switch (field) {
+                case ID:
+                    item.setId(resultSet.getString(field.getColumnName()));
+                    break;
+                case NAME:
+                    item.setName(resultSet.getString(field.getColumnName()));
+                    break;
+                case LEAD:
+                    item.setLead(resultSet.getString(field.getColumnName()));
+                    break;
+                case ITEM_TYPE:
+                    String itemType = resultSet.getString(field.getColumnName());
+                    item.setItemType(itemType == null ? null : GeneratedItem.ItemType.fromDatabase(itemType));
+                    break;
+                case VERSION:
+                    item.setVersion(resultSet.getInt(field.getColumnName()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown field " + field);
+            }
+        }
+        return item;
+    }
+
+    private Stream<Item> stream() {
+        return limiter.stream(() -> metrics.recordStream(itemManager::stream));
+    }
+
+    private <T> T execute(String operation, Supplier<T> work) {
+        return limiter.call(() -> metrics.record(operation, work));
+    }
+
+    /**
+     * Checks if the exception was caused by a violation of the name_UNIQUE constraint on the item table.
+     */
+    private static boolean isDuplicateName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (sqlException.getErrorCode() == ER_DUP_ENTRY && sqlException.getMessage() != null
+                        && sqlException.getMessage().contains(NAME_UNIQUE_KEY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String toDatabase(GeneratedItem.ItemType itemType) {
+        return itemType == null ? null : itemType.toDatabase();
+    }
+
     private void createIdForItem(Item item) {
-        boolean idExists;
+        // the generators make collisions practically impossible, checking the index costs no database round-trip
         String id;
         do {
-            id = UUID.randomUUID().toString();
-            Optional<Item> existingItem = itemManager.stream().filter(ID.equal(id)).findAny();
-            idExists = existingItem.isPresent();
-        } while (idExists);
+            id = idGenerator.nextId();
+        } while (itemIndex.containsId(id));
         item.setId(id);
     }
 }
@@ -0,0 +1,207 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemManager;
+import com.speedment.runtime.config.Dbms;
+import com.speedment.runtime.config.identifier.TableIdentifier;
+import com.speedment.runtime.core.component.ProjectComponent;
+import com.speedment.runtime.core.component.connectionpool.ConnectionPoolComponent;
+import com.speedment.runtime.core.db.SqlFunction;
+import com.speedment.runtime.core.exception.SpeedmentException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes plain SQL statements against the item table and the tables next to it, for set based operations which can
+ * not be expressed through the Speedment {@link ItemManager}. The statements use the connections of the Speedment
+ * connection pool. Any {@link SQLException} is rethrown as a {@link SpeedmentException}, just like the managers do.
+ */
+public class ItemSqlExecutor {
+
+    private final ConnectionPoolComponent connectionPool;
+    private final Dbms dbms;
+    private final String schemaName;
+    private final String itemTable;
+
+    public ItemSqlExecutor(SpeedmentApplication app) {
+        this.connectionPool = app.getOrThrow(ConnectionPoolComponent.class);
+        this.dbms = app.getOrThrow(ProjectComponent.class).getProject().dbmses()
+                .findFirst()
+                .orElseThrow(() -> new SpeedmentException("No dbms configured for the Speedment application"));
+        TableIdentifier<Item> table = app.getOrThrow(ItemManager.class).getTableIdentifier();
+        this.schemaName = table.getSchemaName();
+        this.itemTable = getTable(table.getTableName());
+    }
+
+    /**
+     * @return The fully qualified and quoted name of the item table, for use in SQL statements.
+     */
+    public String getItemTable() {
+        return itemTable;
+    }
+
+    /**
+     * @param tableName The name of a table in the schema of the item table.
+     * @return The fully qualified and quoted name of the table, for use in SQL statements.
+     */
+    public String getTable(String tableName) {
+        return quote(schemaName) + "." + quote(tableName);
+    }
+
+    /**
+     * Executes a single insert, update or delete statement.
+     *
+     * @param sql        The statement to execute, with a ? for each parameter.
+     * @param parameters The values of the parameters, in the same order as they occur in the statement.
+     * @return The number of affected rows.
+     */
+    public int executeUpdate(String sql, List<?> parameters) {
+        return inTransaction(connection -> executeUpdate(connection, sql, parameters));
+    }
+
+    /**
+     * Executes a single insert, update or delete statement using the supplied connection.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute, with a ? for each parameter.
+     * @param parameters The values of the parameters, in the same order as they occur in the statement.
+     * @return The number of affected rows.
+     * @throws SQLException Something went wrong while executing the statement.
+     */
+    public int executeUpdate(Connection connection, String sql, List<?> parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes a statement once for every supplied row, as a single batch, using the supplied connection. With the
+     * rewriteBatchedStatements connection property, the driver sends an insert batch as one multi-row INSERT.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute, with a ? for each parameter.
+     * @param rows       The values of the parameters of every row, in the same order as they occur in the statement.
+     * @return The update counts of the rows, as far as the driver reports them.
+     * @throws SQLException Something went wrong while executing the statement.
+     */
+    public int[] executeBatch(Connection connection, String sql, List<? extends List<?>> rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            addBatch(statement, rows);
+            return statement.executeBatch();
+        }
+    }
+
+    /**
+     * Executes an insert statement once for every supplied row, as a single batch, using the supplied connection.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute, with a ? for each parameter.
+     * @param rows       The values of the parameters of every row, in the same order as they occur in the statement.
+     * @return The keys generated for the inserted rows, in the same order as the rows.
+     * @throws SQLException Something went wrong while executing the statement.
+     */
+    public List<Long> executeInsert(Connection connection, String sql, List<? extends List<?>> rows)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            addBatch(statement, rows);
+            statement.executeBatch();
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                List<Long> keys = new ArrayList<>(rows.size());
+                while (generatedKeys.next()) {
+                    keys.add(generatedKeys.getLong(1));
+                }
+                return keys;
+            }
+        }
+    }
+
+    /**
+     * Executes a single query and maps every row of the result.
+     *
+     * @param sql        The query to execute, with a ? for each parameter.
+     * @param parameters The values of the parameters, in the same order as they occur in the query.
+     * @param rowMapper  Maps the current row of the result set, the mapper should not move the cursor.
+     * @param <T>        The type the rows are mapped to.
+     * @return The mapped rows, in the order of the result set.
+     */
+    public <T> List<T> executeQuery(String sql, List<?> parameters, SqlFunction<ResultSet, T> rowMapper) {
+        return inTransaction(connection -> executeQuery(connection, sql, parameters, rowMapper));
+    }
+
+    /**
+     * Executes a single query using the supplied connection and maps every row of the result.
+     *
+     * @param connection The connection to use.
+     * @param sql        The query to execute, with a ? for each parameter.
+     * @param parameters The values of the parameters, in the same order as they occur in the query.
+     * @param rowMapper  Maps the current row of the result set, the mapper should not move the cursor.
+     * @param <T>        The type the rows are mapped to.
+     * @return The mapped rows, in the order of the result set.
+     * @throws SQLException Something went wrong while executing the query.
+     */
+    public <T> List<T> executeQuery(Connection connection, String sql, List<?> parameters,
+                                    SqlFunction<ResultSet, T> rowMapper) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                while (resultSet.next()) {
+                    rows.add(rowMapper.apply(resultSet));
+                }
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Runs the supplied work on a single connection, within a single transaction. The transaction is committed when
+     * the work completes normally and rolled back when it throws an exception.
+     *
+     * @param work The work to execute.
+     * @param <T>  The type of the result of the work.
+     * @return The result of the work.
+     */
+    public <T> T inTransaction(SqlFunction<Connection, T> work) {
+        try (Connection connection = connectionPool.getConnection(dbms)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.apply(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new SpeedmentException("Unable to execute statement on " + itemTable, e);
+        }
+    }
+
+    private static void addBatch(PreparedStatement statement, List<? extends List<?>> rows) throws SQLException {
+        for (List<?> parameters : rows) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            statement.addBatch();
+        }
+    }
+
+    private static String quote(String name) {
+        return "`" + name.replace("`", "``") + "`";
+    }
+}
@@ -0,0 +1,59 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the number of items per item type. The counters are loaded once, after which the write methods of the
+ * {@link ItemService} keep them up to date, so reading them never touches the database.
+ */
+class ItemTypeCounters {
+
+    // holds a counter for every item type up front, so the map itself never changes
+    private final Map<GeneratedItem.ItemType, AtomicLong> counters = new EnumMap<>(GeneratedItem.ItemType.class);
+
+    /**
+     * @param initialCounts The number of items per type at start up, missing types are counted as 0.
+     */
+    ItemTypeCounters(Map<GeneratedItem.ItemType, Long> initialCounts) {
+        for (GeneratedItem.ItemType itemType : GeneratedItem.ItemType.values()) {
+            counters.put(itemType, new AtomicLong(initialCounts.getOrDefault(itemType, 0L)));
+        }
+    }
+
+    void added(GeneratedItem.ItemType itemType) {
+        if (itemType != null) {
+            counters.get(itemType).incrementAndGet();
+        }
+    }
+
+    void removed(GeneratedItem.ItemType itemType) {
+        if (itemType != null) {
+            counters.get(itemType).decrementAndGet();
+        }
+    }
+
+    void changed(GeneratedItem.ItemType previousType, GeneratedItem.ItemType newType) {
+        if (previousType != newType) {
+            removed(previousType);
+            added(newType);
+        }
+    }
+
+    long count(Set<GeneratedItem.ItemType> itemTypes) {
+        return itemTypes.stream().mapToLong(itemType -> counters.get(itemType).get()).sum();
+    }
+
+    /**
+     * @return The number of items of every type, including the types without items.
+     */
+    Map<GeneratedItem.ItemType, Long> counts() {
+        Map<GeneratedItem.ItemType, Long> counts = new EnumMap<>(GeneratedItem.ItemType.class);
+        counters.forEach((itemType, counter) -> counts.put(itemType, counter.get()));
+        return counts;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ractoc.tutorials.speedment.service;
+
+import java.util.UUID;
+
+/**
+ * Generates random (version 4) UUIDs. Since random ids are spread out over the whole primary key index, inserting
+ * them touches random index pages. Prefer the {@link TimeOrderedItemIdGenerator} for large tables.
+ */
+public class RandomItemIdGenerator implements ItemIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ractoc.tutorials.speedment.service;
+
+public class StaleEntryException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+
+	public StaleEntryException(String msg) {
+		super(msg);
+	}
+}
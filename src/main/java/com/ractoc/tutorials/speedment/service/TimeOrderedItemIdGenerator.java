@@ -0,0 +1,60 @@
+package com.ractoc.tutorials.speedment.service;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time ordered (version 7) UUIDs. The first 48 bits contain the current time in milliseconds, followed by a
+ * 12 bit counter which keeps ids generated within the same millisecond in order. The remaining 62 bits are random.
+ * <p>
+ * Ids generated by a single instance are strictly increasing, so new items are appended at the end of the primary key
+ * index instead of being inserted at random positions. Uniqueness across instances relies on the random bits, which
+ * makes a collision practically impossible without checking the database.
+ */
+public class TimeOrderedItemIdGenerator implements ItemIdGenerator {
+
+    private static final int VERSION = 0x7000;
+    private static final int MAX_SEQUENCE = 0xFFF;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Random random = new SecureRandom();
+    private final LongSupplier clock;
+    private long lastTimestamp = -1;
+    private int sequence;
+
+    public TimeOrderedItemIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedItemIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        long timestamp;
+        int currentSequence;
+        synchronized (this) {
+            timestamp = clock.getAsLong();
+            if (timestamp > lastTimestamp) {
+                // start each millisecond at a random point in the lower half, leaving room to count up
+                sequence = random.nextInt(MAX_SEQUENCE / 2);
+            } else {
+                // same millisecond, or the clock moved backwards: keep counting from the last timestamp
+                timestamp = lastTimestamp;
+                if (++sequence > MAX_SEQUENCE) {
+                    timestamp++;
+                    sequence = 0;
+                }
+            }
+            lastTimestamp = timestamp;
+            currentSequence = sequence;
+        }
+        long mostSignificantBits = (timestamp << 16) | VERSION | currentSequence;
+        long leastSignificantBits = (random.nextLong() & VARIANT_MASK) | VARIANT;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+}
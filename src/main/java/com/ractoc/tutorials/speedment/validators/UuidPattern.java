@@ -2,6 +2,9 @@ package com.ractoc.tutorials.speedment.validators;
 
 import javax.validation.constraints.Pattern;
 
-@Pattern(regexp = "[a-fA-F0-9]{8}(-[a-fA-F0-9]{4}){3}-[a-fA-F0-9]{12}", message = "Not a valid UUID")
+@Pattern(regexp = UuidPattern.REGEXP, message = UuidPattern.MESSAGE)
 public @interface UuidPattern {
+
+    String REGEXP = "[a-fA-F0-9]{8}(-[a-fA-F0-9]{4}){3}-[a-fA-F0-9]{12}";
+    String MESSAGE = "Not a valid UUID";
 }
@@ -6,8 +6,19 @@ CREATE TABLE my_collection.item (
   name varchar(45) NOT NULL,
   lead varchar(140) NOT NULL,
   item_type varchar(25) NOT NULL,
+  version int NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
-  UNIQUE KEY name_UNIQUE (name, item_type)
+  UNIQUE KEY name_UNIQUE (name, item_type),
+  KEY item_type_id (item_type, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE my_collection.item_change (
+  sequence bigint NOT NULL AUTO_INCREMENT,
+  item_id char(36) NOT NULL,
+  operation varchar(10) NOT NULL,
+  changed_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (sequence),
+  KEY changed_at (changed_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8;
 
 # CREATE USER IF NOT EXISTS 'my_collection'@'%' IDENTIFIED BY 'MyCollection';
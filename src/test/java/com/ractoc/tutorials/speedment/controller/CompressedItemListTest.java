@@ -0,0 +1,88 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ractoc.tutorials.speedment.handler.ItemHandler;
+import info.solidsoft.mockito.java8.api.WithBDDMockito;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+@DisplayName("Test the CompressedItemList")
+@ExtendWith(MockitoExtension.class)
+class CompressedItemListTest implements WithAssertions, WithBDDMockito {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_NAME = "test name";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ItemHandler mockedItemHandler;
+
+    private CompressedItemList compressedItemList;
+
+    @BeforeEach
+    void setUp() {
+        compressedItemList = new CompressedItemList(mockedItemHandler, new ItemListResponseWriter(objectMapper));
+    }
+
+    @Test
+    void getCompressesList() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemJsonList()).thenReturn(Collections.singletonList(
+                ("{\"id\":\"" + TEST_ID + "\",\"name\":\"" + TEST_NAME + "\",\"itemType\":\"BOARDGAMES\"}")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        // When
+        byte[] compressed = compressedItemList.get(1L, CompressedItemList.GZIP);
+
+        // Then
+        JsonNode response = objectMapper.readTree(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+        assertThat(response.path("responseCode").asInt()).isEqualTo(200);
+        assertThat(response.path("itemList").path(0).path("id").asText()).isEqualTo(TEST_ID);
+        assertThat(response.path("itemList").path(0).path("name").asText()).isEqualTo(TEST_NAME);
+    }
+
+    @Test
+    void getDeflatesList() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemJsonList()).thenReturn(Collections.singletonList(
+                ("{\"id\":\"" + TEST_ID + "\",\"name\":\"" + TEST_NAME + "\",\"itemType\":\"BOARDGAMES\"}")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        // When
+        byte[] compressed = compressedItemList.get(1L, CompressedItemList.DEFLATE);
+
+        // Then
+        JsonNode response = objectMapper.readTree(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+        assertThat(response.path("itemList").path(0).path("id").asText()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    void getReusesListUntilChanged() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemJsonList()).thenReturn(Collections.emptyList());
+        byte[] first = compressedItemList.get(1L, CompressedItemList.GZIP);
+
+        // When
+        byte[] unchanged = compressedItemList.get(1L, CompressedItemList.GZIP);
+        byte[] changed = compressedItemList.get(2L, CompressedItemList.GZIP);
+
+        // Then
+        assertThat(unchanged).isSameAs(first);
+        assertThat(changed).isNotSameAs(first);
+        verify(mockedItemHandler, times(2)).getItemJsonList();
+    }
+}
@@ -1,16 +1,34 @@
 package com.ractoc.tutorials.speedment.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.handler.ItemEventBroadcaster;
 import com.ractoc.tutorials.speedment.handler.ItemHandler;
+import com.ractoc.tutorials.speedment.handler.ItemJsonPage;
+import com.ractoc.tutorials.speedment.model.CacheStatistics;
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
 import com.ractoc.tutorials.speedment.model.ItemListModel;
 import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.model.ItemStatistics;
 import com.ractoc.tutorials.speedment.model.GetItemForm;
 import com.ractoc.tutorials.speedment.response.BaseResponse;
+import com.ractoc.tutorials.speedment.response.CacheStatisticsResponse;
+import com.ractoc.tutorials.speedment.response.DeleteResponse;
 import com.ractoc.tutorials.speedment.response.ErrorResponse;
+import com.ractoc.tutorials.speedment.response.ItemBatchResponse;
+import com.ractoc.tutorials.speedment.response.ItemChangesResponse;
 import com.ractoc.tutorials.speedment.response.ItemListResponse;
 import com.ractoc.tutorials.speedment.response.ItemResponse;
+import com.ractoc.tutorials.speedment.response.ItemStatisticsResponse;
 import com.ractoc.tutorials.speedment.service.DuplicateEntryException;
+import com.ractoc.tutorials.speedment.service.ExpiredChangeTokenException;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import com.ractoc.tutorials.speedment.service.ItemField;
 import com.ractoc.tutorials.speedment.service.NoSuchEntryException;
 import com.ractoc.tutorials.speedment.service.ServiceException;
+import com.ractoc.tutorials.speedment.service.StaleEntryException;
 import info.solidsoft.mockito.java8.api.WithBDDMockito;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.DisplayName;
@@ -18,11 +36,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static org.springframework.http.HttpStatus.*;
 
@@ -30,13 +63,24 @@ import static org.springframework.http.HttpStatus.*;
 @ExtendWith(MockitoExtension.class)
 class ItemControllerTest implements WithAssertions, WithBDDMockito {
     private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String OTHER_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
     private static final String TEST_NAME = "test name";
     private static final String TEST_LEAD = "test description";
     private static final String TEST_EXCEPTION = "test exception";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     @Mock
     private ItemHandler mockedItemHandler;
 
+    @Mock
+    private ItemEventBroadcaster mockedEventBroadcaster;
+
+    @Mock
+    private CompressedItemList mockedCompressedItemList;
+
+    @Spy
+    private ItemListResponseWriter responseWriter = new ItemListResponseWriter(OBJECT_MAPPER);
+
     @InjectMocks
     private ItemController controller;
 
@@ -45,27 +89,371 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
     private ItemListModel baseListItem = ItemListModel.builder().id(TEST_ID).name(TEST_NAME).build();
 
     @Test
-    void getItemList() {
+    void getItemList() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemJsonList()).thenReturn(Collections.singletonList(json(baseListItem)));
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, null, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        JsonNode body = writeBody(response);
+        assertThat(body.path("responseCode").asInt()).isEqualTo(OK.value());
+        assertThat(body.path("itemList")).hasSize(1);
+        assertThat(body.path("itemList").path(0).path("id").asText()).isEqualTo(TEST_ID);
+        assertThat(body.path("itemList").path(0).path("name").asText()).isEqualTo(TEST_NAME);
+        assertThat(body.has("nextCursor")).isFalse();
+        verify(mockedItemHandler, never()).getItemList();
+    }
+
+    @Test
+    void getItemListBinary() {
+        // Given
+        when(mockedItemHandler.getItemList()).thenReturn(Collections.singletonList(baseListItem));
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, null, "application/x-jackson-smile", null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(ItemListResponse.class);
+        ItemListResponse body = (ItemListResponse) response.getBody();
+        assertThat(body.getResponseCode()).isEqualTo(OK.value());
+        assertThat(body.getItemList()).hasSize(1);
+        assertThat(body.getItemList().get(0).getId()).isEqualTo(TEST_ID);
+        assertThat(body.getItemList().get(0).getName()).isEqualTo(TEST_NAME);
+        verify(mockedItemHandler, never()).getItemJsonList();
+    }
+
+    @Test
+    void getItemListFirstPage() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemJsonPage(null, 1, null))
+                .thenReturn(new ItemJsonPage(Collections.singletonList(json(baseListItem)), TEST_ID));
+        when(mockedItemHandler.getItemCount()).thenReturn(5L);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(1, null, null, null, null, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        JsonNode body = writeBody(response);
+        assertThat(body.path("itemList")).hasSize(1);
+        assertThat(body.path("itemList").path(0).path("id").asText()).isEqualTo(TEST_ID);
+        assertThat(body.path("nextCursor").asText()).isEqualTo(TEST_ID);
+        assertThat(body.path("totalCount").asLong()).isEqualTo(5L);
+    }
+
+    @Test
+    void getItemListLastPage() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemJsonPage(OTHER_ID, 10, null))
+                .thenReturn(new ItemJsonPage(Collections.singletonList(json(baseListItem)), null));
+        when(mockedItemHandler.getItemCount()).thenReturn(5L);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(10, OTHER_ID, null, null, null, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        JsonNode body = writeBody(response);
+        assertThat(body.path("itemList")).hasSize(1);
+        assertThat(body.has("nextCursor")).isFalse();
+        assertThat(body.path("totalCount").asLong()).isEqualTo(5L);
+    }
+
+    @Test
+    void getItemListBinaryPage() {
         // Given
         List<ItemListModel> listItems = new ArrayList<>();
         listItems.add(baseListItem);
-        when(mockedItemHandler.getItemList()).thenReturn(listItems);
+        listItems.add(ItemListModel.builder().id(OTHER_ID).name(TEST_NAME).build());
+        when(mockedItemHandler.getItemList(null, 2)).thenReturn(listItems);
+        when(mockedItemHandler.getItemCount()).thenReturn(5L);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItemList();
+        ResponseEntity<?> response = controller.getItemList(1, null, null, null, null, "application/cbor", null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(ItemListResponse.class);
+        ItemListResponse body = (ItemListResponse) response.getBody();
+        assertThat(body.getItemList()).hasSize(1);
+        assertThat(body.getItemList().get(0).getId()).isEqualTo(TEST_ID);
+        assertThat(body.getNextCursor()).isEqualTo(TEST_ID);
+        assertThat(body.getTotalCount()).isEqualTo(5L);
+    }
+
+    @Test
+    void getItemListPageOfType() throws IOException {
+        // Given
+        Set<GeneratedItem.ItemType> types = EnumSet.of(GeneratedItem.ItemType.BOARDGAMES);
+        when(mockedItemHandler.getItemJsonPage(null, 10, types))
+                .thenReturn(new ItemJsonPage(Collections.singletonList(json(baseListItem)), null));
+        when(mockedItemHandler.getItemCount(types)).thenReturn(1L);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(10, null, types, null, null, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        JsonNode body = writeBody(response);
+        assertThat(body.path("itemList").path(0).path("id").asText()).isEqualTo(TEST_ID);
+        assertThat(body.has("nextCursor")).isFalse();
+        assertThat(body.path("totalCount").asLong()).isEqualTo(1L);
+        verify(mockedItemHandler, never()).getItemCount();
+    }
+
+    @Test
+    void getItemListNotModified() {
+        // Given
+        when(mockedItemHandler.getChangeCount()).thenReturn(7L);
+        String eTag = controller.getItemList(null, null, null, null, null, null, null).getHeaders().getETag();
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, eTag, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getBody()).isNull();
+        verify(mockedItemHandler, times(1)).getItemJsonList();
+    }
+
+    @Test
+    void getItemListModified() {
+        // Given
+        when(mockedItemHandler.getChangeCount()).thenReturn(7L, 8L);
+        String eTag = controller.getItemList(null, null, null, null, null, null, null).getHeaders().getETag();
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, eTag, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+        verify(mockedItemHandler, times(2)).getItemJsonList();
+    }
+
+    @Test
+    void getItemListBinaryNotModifiedByJsonTag() {
+        // Given
+        when(mockedItemHandler.getChangeCount()).thenReturn(7L);
+        when(mockedItemHandler.getItemList()).thenReturn(Collections.singletonList(baseListItem));
+        String jsonETag = controller.getItemList(null, null, null, null, null, null, null).getHeaders().getETag();
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, jsonETag, "application/cbor", null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(jsonETag).endsWith("-cbor\"");
+        assertThat(response.getBody()).isInstanceOf(ItemListResponse.class);
+    }
+
+    @Test
+    void getItemListCompressed() {
+        // Given
+        byte[] compressed = {31, -117, 8};
+        when(mockedItemHandler.getChangeCount()).thenReturn(7L);
+        when(mockedCompressedItemList.get(7L, CompressedItemList.GZIP)).thenReturn(compressed);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, null, "application/json", "gzip, deflate, br");
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isSameAs(compressed);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeaders().getETag()).isNotNull();
+        verify(mockedItemHandler, never()).getItemJsonList();
+    }
+
+    @Test
+    void getItemListCompressedHasOwnETag() {
+        // Given
+        when(mockedItemHandler.getChangeCount()).thenReturn(7L);
+        when(mockedCompressedItemList.get(7L, CompressedItemList.GZIP)).thenReturn(new byte[]{31, -117, 8});
+        String identityETag = controller.getItemList(null, null, null, null, null, null, null).getHeaders().getETag();
+        String gzipETag = controller.getItemList(null, null, null, null, null, null, "gzip").getHeaders().getETag();
+
+        // When
+        ResponseEntity<?> identityForGzip = controller.getItemList(null, null, null, null, identityETag, null, "gzip");
+        ResponseEntity<?> gzipForGzip = controller.getItemList(null, null, null, null, gzipETag, null, "gzip");
+
+        // Then
+        assertThat(gzipETag).isNotEqualTo(identityETag);
+        assertThat(identityForGzip.getStatusCode()).isEqualTo(OK);
+        assertThat(gzipForGzip.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(gzipForGzip.getHeaders().getETag()).isEqualTo(gzipETag);
+        assertThat(gzipForGzip.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void getItemListDeflatedWhenGzipRefused() {
+        // Given
+        byte[] compressed = {120, -100};
+        when(mockedItemHandler.getChangeCount()).thenReturn(7L);
+        when(mockedCompressedItemList.get(7L, CompressedItemList.DEFLATE)).thenReturn(compressed);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, null, null, "deflate, gzip;q=0");
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isSameAs(compressed);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(response.getHeaders().getETag()).isEqualTo(ItemETags.ofCompressedList(7L, CompressedItemList.DEFLATE))
+                .isNotEqualTo(ItemETags.ofCompressedList(7L, CompressedItemList.GZIP));
+    }
+
+    @Test
+    void getItemListCompressionRefused() {
+        // Given
+        when(mockedItemHandler.getItemJsonList()).thenReturn(Collections.singletonList(json(baseListItem)));
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, null, null, "br, gzip;q=0, deflate;q=0");
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(StreamingResponseBody.class);
+        assertThat(response.getHeaders().getETag()).startsWith("W/");
+        verify(mockedCompressedItemList, never()).get(anyLong(), anyString());
+    }
+
+    @Test
+    void getItemListBinaryNotCompressed() {
+        // Given
+        when(mockedItemHandler.getItemList()).thenReturn(Collections.singletonList(baseListItem));
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, null, null,
+                "application/cbor, application/json;q=0.5", "gzip");
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(ItemListResponse.class);
+        verify(mockedCompressedItemList, never()).get(anyLong(), anyString());
+    }
+
+    @Test
+    void getItemListPageNotCompressed() {
+        // Given
+        when(mockedItemHandler.getItemJsonPage(null, 10, null))
+                .thenReturn(new ItemJsonPage(Collections.singletonList(json(baseListItem)), null));
+        when(mockedItemHandler.getItemCount()).thenReturn(1L);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(10, null, null, null, null, null, "gzip");
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(StreamingResponseBody.class);
+        verify(mockedCompressedItemList, never()).get(anyLong(), anyString());
+    }
+
+    @Test
+    void getItemListFields() throws IOException {
+        // Given
+        Set<ItemField> fields = EnumSet.of(ItemField.ID, ItemField.NAME);
+        List<ItemListModel> listItems = new ArrayList<>();
+        listItems.add(ItemListModel.builder().id(TEST_ID).name(TEST_NAME).itemType(GeneratedItem.ItemType.BOARDGAMES).build());
+        when(mockedItemHandler.getItemList(null, 11L, null, fields)).thenReturn(listItems);
+        when(mockedItemHandler.getItemCount()).thenReturn(1L);
+
+        // When
+        ResponseEntity<?> response = controller.getItemList(10, null, null, Collections.singleton("name"), null, null, "gzip");
 
         // Then
         assertThat(response).isNotNull();
-        assertThat(response.getBody()).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(OK);
-        assertThat(response.getBody().getResponseCode()).isEqualTo(OK.value());
         assertThat(response.getBody()).isInstanceOf(ItemListResponse.class);
         ItemListResponse body = (ItemListResponse) response.getBody();
-        assertThat(body.getItemList()).isNotNull();
-        assertThat(body.getItemList()).isNotEmpty();
         assertThat(body.getItemList()).hasSize(1);
         assertThat(body.getItemList().get(0).getId()).isEqualTo(TEST_ID);
         assertThat(body.getItemList().get(0).getName()).isEqualTo(TEST_NAME);
+        assertThat(body.getItemList().get(0).getItemType()).isNull();
+        // only the projected items leave out their empty fields
+        JsonNode json = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsBytes(body));
+        assertThat(json.path("itemList").path(0).has("itemType")).isFalse();
+        verify(mockedCompressedItemList, never()).get(anyLong(), anyString());
+    }
+
+    @Test
+    void getItemListUnsupportedField() {
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, null, null, Collections.singleton("lead"), null, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isInstanceOf(ErrorResponse.class);
+        assertThat(((ErrorResponse) response.getBody()).getMessage()).contains("id, name, itemType");
+        verify(mockedItemHandler, never()).getItemList();
+    }
+
+    @Test
+    void getItemListAfterWithoutLimit() {
+        // When
+        ResponseEntity<?> response = controller.getItemList(null, TEST_ID, null, null, null, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isInstanceOf(ErrorResponse.class);
+        verify(mockedItemHandler, never()).getItemJsonList();
+        verify(mockedCompressedItemList, never()).get(anyLong(), anyString());
+    }
+
+    @Test
+    void streamItemList() throws IOException {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = controller.streamItemList();
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        response.getBody().writeTo(outputStream);
+        verify(mockedItemHandler).writeItemList(outputStream);
+    }
+
+    @Test
+    void searchItems() {
+        // Given
+        when(mockedItemHandler.searchItems("test", 10)).thenReturn(Collections.singletonList(baseListItem));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.searchItems("test", 10);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(ItemListResponse.class);
+        ItemListResponse body = (ItemListResponse) response.getBody();
+        assertThat(body.getItemList()).extracting(ItemListModel::getId).containsExactly(TEST_ID);
     }
 
     @Test
@@ -76,7 +464,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         search.setName(TEST_NAME);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItem(search);
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -99,7 +487,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         search.setName(TEST_NAME);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItem(search);
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -120,7 +508,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         search.setName(TEST_NAME);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItem(search);
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -141,7 +529,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         search.setId(TEST_ID);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItem(search);
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -156,6 +544,77 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         assertThat(body.getItem().getId()).isEqualTo(TEST_ID);
     }
 
+    @Test
+    void getItemByIdSendsEmptyFields() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemById(TEST_ID)).thenReturn(updateItem);
+        GetItemForm search = new GetItemForm();
+        search.setId(TEST_ID);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
+
+        // Then
+        JsonNode json = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsBytes(response.getBody()));
+        assertThat(json.path("item").has("version")).isTrue();
+        assertThat(json.path("item").path("version").isNull()).isTrue();
+    }
+
+    @Test
+    void getItemByIdNotModified() {
+        // Given
+        when(mockedItemHandler.getItemVersionById(TEST_ID)).thenReturn(OptionalInt.of(2));
+        GetItemForm search = new GetItemForm();
+        search.setId(TEST_ID);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, "W/\"" + TEST_ID + "-2\"", null);
+
+        // Then
+        verify(mockedItemHandler, never()).getItemById(TEST_ID);
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + TEST_ID + "-2\"");
+    }
+
+    @Test
+    void getItemByIdBinaryNotModifiedByJsonTag() {
+        // Given
+        when(mockedItemHandler.getItemVersionById(TEST_ID)).thenReturn(OptionalInt.of(2));
+        when(mockedItemHandler.getItemById(TEST_ID)).thenReturn(updateItem.toBuilder().version(2).build());
+        GetItemForm search = new GetItemForm();
+        search.setId(TEST_ID);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, "\"" + TEST_ID + "-2\"",
+                "application/x-jackson-smile");
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + TEST_ID + "-2-smile\"");
+        assertThat(response.getBody()).isInstanceOf(ItemResponse.class);
+    }
+
+    @Test
+    void getItemByNameModified() {
+        // Given
+        when(mockedItemHandler.getItemIdByName(TEST_NAME)).thenReturn(Optional.of(TEST_ID));
+        when(mockedItemHandler.getItemVersionById(TEST_ID)).thenReturn(OptionalInt.of(3));
+        when(mockedItemHandler.getItemByName(TEST_NAME)).thenReturn(updateItem.toBuilder().version(3).build());
+        GetItemForm search = new GetItemForm();
+        search.setName(TEST_NAME);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, "\"" + TEST_ID + "-2\"", null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + TEST_ID + "-3\"");
+        assertThat(response.getBody()).isInstanceOf(ItemResponse.class);
+    }
+
     @Test
     void getItemByIdNoSuchEntryException() {
         // Given
@@ -164,7 +623,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         search.setId(TEST_ID);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItem(search);
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -177,6 +636,47 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         assertThat(body.getMessage()).isEqualTo(TEST_EXCEPTION);
     }
 
+    @Test
+    void getItemByIDFields() throws IOException {
+        // Given
+        when(mockedItemHandler.getItemById(TEST_ID)).thenReturn(updateItem.toBuilder().version(2).build());
+        GetItemForm search = new GetItemForm();
+        search.setId(TEST_ID);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItem(search, new HashSet<>(Arrays.asList("name", "itemType")), null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + TEST_ID + "-2\"");
+        assertThat(response.getBody()).isInstanceOf(ItemResponse.class);
+        ItemModel item = ((ItemResponse) response.getBody()).getItem();
+        assertThat(item.getId()).isEqualTo(TEST_ID);
+        assertThat(item.getName()).isEqualTo(TEST_NAME);
+        assertThat(item.getLead()).isNull();
+        assertThat(item.getVersion()).isNull();
+        JsonNode json = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsBytes(response.getBody()));
+        assertThat(json.path("item").has("lead")).isFalse();
+        assertThat(json.path("item").has("version")).isFalse();
+    }
+
+    @Test
+    void getItemUnsupportedField() {
+        // Given
+        GetItemForm search = new GetItemForm();
+        search.setId(TEST_ID);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItem(search, Collections.singleton("description"), null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isInstanceOf(ErrorResponse.class);
+        verify(mockedItemHandler, never()).getItemById(TEST_ID);
+    }
+
     @Test
     void getItemByIDServiceException() {
         // Given
@@ -185,7 +685,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         search.setId(TEST_ID);
 
         // When
-        ResponseEntity<BaseResponse> response = controller.getItem(search);
+        ResponseEntity<BaseResponse> response = controller.getItem(search, null, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -277,6 +777,54 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         assertThat(body.getMessage()).isEqualTo(TEST_EXCEPTION);
     }
 
+    @Test
+    void createItems() {
+        // Given
+        List<ItemModel> items = Collections.singletonList(baseItem);
+        when(mockedItemHandler.saveItems(items)).thenReturn(Collections.singletonList(baseItem.toBuilder().id(TEST_ID).build()));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.createItems(items);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getResponseCode()).isEqualTo(CREATED.value());
+        assertThat(response.getBody()).isInstanceOf(ItemBatchResponse.class);
+        ItemBatchResponse body = (ItemBatchResponse) response.getBody();
+        assertThat(body.getItems()).hasSize(1);
+        assertThat(body.getItems().get(0).getId()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    void createItemsWithId() {
+        // When
+        ResponseEntity<BaseResponse> response = controller.createItems(Arrays.asList(baseItem, updateItem));
+
+        // Then
+        verify(mockedItemHandler, never()).saveItems(anyList());
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody().getResponseCode()).isEqualTo(UNPROCESSABLE_ENTITY.value());
+    }
+
+    @Test
+    void createItemsDuplicateEntry() {
+        // Given
+        List<ItemModel> items = Collections.singletonList(baseItem);
+        when(mockedItemHandler.saveItems(items)).thenThrow(new DuplicateEntryException(TEST_EXCEPTION));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.createItems(items);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody().getResponseCode()).isEqualTo(CONFLICT.value());
+        assertThat(response.getBody()).isInstanceOf(ErrorResponse.class);
+        assertThat(((ErrorResponse) response.getBody()).getMessage()).isEqualTo(TEST_EXCEPTION);
+    }
+
     @Test
     void updateItem() {
 
@@ -284,7 +832,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         when(mockedItemHandler.updateItem(updateItem)).thenReturn(updateItem.toBuilder().name("updated").build());
 
         // When
-        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem);
+        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -299,12 +847,72 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         assertThat(body.getItem().getId()).isEqualTo(TEST_ID);
     }
 
+    @Test
+    void updateItemIfMatch() {
+        // Given
+        ItemModel item = updateItem.toBuilder().build();
+        when(mockedItemHandler.updateItem(item)).thenReturn(updateItem.toBuilder().version(4).build());
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.updateItem(item, "\"" + TEST_ID + "-3\"", null);
+
+        // Then
+        assertThat(item.getVersion()).isEqualTo(3);
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + TEST_ID + "-4\"");
+    }
+
+    @Test
+    void updateItemIfMatchBinaryTag() {
+        // Given
+        ItemModel item = updateItem.toBuilder().build();
+        when(mockedItemHandler.updateItem(item)).thenReturn(updateItem.toBuilder().version(4).build());
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.updateItem(item, "\"" + TEST_ID + "-3-cbor\"",
+                "application/cbor");
+
+        // Then
+        assertThat(item.getVersion()).isEqualTo(3);
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + TEST_ID + "-4-cbor\"");
+    }
+
+    @Test
+    void updateItemIfMatchOtherItem() {
+        // When
+        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem, "\"" + OTHER_ID + "-3\"", null);
+
+        // Then
+        verify(mockedItemHandler, never()).updateItem(any(ItemModel.class));
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+        assertThat(response.getBody().getResponseCode()).isEqualTo(PRECONDITION_FAILED.value());
+    }
+
+    @Test
+    void updateItemStaleEntryException() {
+        // Given
+        when(mockedItemHandler.updateItem(updateItem)).thenThrow(new StaleEntryException(TEST_EXCEPTION));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem, null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+        assertThat(response.getBody()).isInstanceOf(ErrorResponse.class);
+        assertThat(((ErrorResponse) response.getBody()).getMessage()).isEqualTo(TEST_EXCEPTION);
+    }
+
     @Test
     void updateItemNoId() {
         // Given
 
         // When
-        ResponseEntity<BaseResponse> response = controller.updateItem(baseItem);
+        ResponseEntity<BaseResponse> response = controller.updateItem(baseItem, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -324,7 +932,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         when(mockedItemHandler.updateItem(updateItem)).thenThrow(new NoSuchEntryException(TEST_EXCEPTION));
 
         // When
-        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem);
+        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -344,7 +952,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         when(mockedItemHandler.updateItem(updateItem)).thenThrow(new DuplicateEntryException(TEST_EXCEPTION));
 
         // When
-        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem);
+        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -364,7 +972,7 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         when(mockedItemHandler.updateItem(updateItem)).thenThrow(new ServiceException(TEST_EXCEPTION));
 
         // When
-        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem);
+        ResponseEntity<BaseResponse> response = controller.updateItem(updateItem, null, null);
 
         // Then
         assertThat(response).isNotNull();
@@ -377,6 +985,135 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         assertThat(body.getMessage()).isEqualTo(TEST_EXCEPTION);
     }
 
+    @Test
+    void getChanges() {
+        // Given
+        ItemModel item = ItemModel.builder().id(TEST_ID).name(TEST_NAME).lead(TEST_LEAD).build();
+        when(mockedItemHandler.getChanges(5L, 10)).thenReturn(Arrays.asList(
+                new ItemChangeModel(6L, TEST_ID, ItemChange.Operation.CREATE, item),
+                new ItemChangeModel(7L, OTHER_ID, ItemChange.Operation.DELETE, null)));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getChanges(5L, 10);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(ItemChangesResponse.class);
+        ItemChangesResponse body = (ItemChangesResponse) response.getBody();
+        assertThat(body.getChanges()).extracting(ItemChangeModel::getId).containsExactly(TEST_ID, OTHER_ID);
+        assertThat(body.getNextToken()).isEqualTo(7L);
+    }
+
+    @Test
+    void getChangesNoChanges() {
+        // Given
+        when(mockedItemHandler.getChanges(5L, 10)).thenReturn(Collections.emptyList());
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getChanges(5L, 10);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        ItemChangesResponse body = (ItemChangesResponse) response.getBody();
+        assertThat(body.getChanges()).isEmpty();
+        assertThat(body.getNextToken()).isEqualTo(5L);
+    }
+
+    @Test
+    void getChangesWithoutToken() {
+        // Given
+        when(mockedItemHandler.getLatestChangeToken()).thenReturn(42L);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getChanges(null, 10);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        ItemChangesResponse body = (ItemChangesResponse) response.getBody();
+        assertThat(body.getChanges()).isEmpty();
+        assertThat(body.getNextToken()).isEqualTo(42L);
+        verify(mockedItemHandler, never()).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void getChangesExpiredToken() {
+        // Given
+        when(mockedItemHandler.getChanges(5L, 10)).thenThrow(new ExpiredChangeTokenException(TEST_EXCEPTION));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getChanges(5L, 10);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(GONE);
+        assertThat(response.getBody()).isInstanceOf(ErrorResponse.class);
+        ErrorResponse body = (ErrorResponse) response.getBody();
+        assertThat(body.getMessage()).isEqualTo(TEST_EXCEPTION);
+    }
+
+    @Test
+    void getEvents() {
+        // Given
+        SseEmitter emitter = new SseEmitter();
+        when(mockedEventBroadcaster.subscribe()).thenReturn(Optional.of(emitter));
+
+        // When
+        ResponseEntity<SseEmitter> response = controller.getEvents();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isSameAs(emitter);
+    }
+
+    @Test
+    void getEventsTooManySubscribers() {
+        // Given
+        when(mockedEventBroadcaster.subscribe()).thenReturn(Optional.empty());
+
+        // When
+        ResponseEntity<SseEmitter> response = controller.getEvents();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void getItemStatistics() {
+        // Given
+        when(mockedItemHandler.getItemStatistics()).thenReturn(new ItemStatistics(2,
+                Collections.singletonMap(GeneratedItem.ItemType.BOARDGAMES, 2L)));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getItemStatistics();
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(ItemStatisticsResponse.class);
+        ItemStatisticsResponse body = (ItemStatisticsResponse) response.getBody();
+        assertThat(body.getStatistics().getTotalCount()).isEqualTo(2);
+        assertThat(body.getStatistics().getCountsByType()).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 2L);
+    }
+
+    @Test
+    void getCacheStatistics() {
+        // Given
+        when(mockedItemHandler.getCacheStatistics()).thenReturn(new CacheStatistics(1, 2, 3, 4));
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.getCacheStatistics();
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(CacheStatisticsResponse.class);
+        CacheStatisticsResponse body = (CacheStatisticsResponse) response.getBody();
+        assertThat(body.getStatistics().getHits()).isEqualTo(2);
+        assertThat(body.getStatistics().getEvictions()).isEqualTo(4);
+    }
+
     @Test
     void deleteItem() {
         // Given
@@ -410,4 +1147,62 @@ class ItemControllerTest implements WithAssertions, WithBDDMockito {
         assertThat(body.getMessage()).isNotNull();
         assertThat(body.getMessage()).isEqualTo(TEST_EXCEPTION);
     }
+
+    @Test
+    void deleteItemsById() {
+        // Given
+        List<String> ids = Collections.singletonList(TEST_ID);
+        when(mockedItemHandler.deleteItems(ids)).thenReturn(1);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.deleteItems(ids, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getResponseCode()).isEqualTo(GONE.value());
+        assertThat(response.getBody()).isInstanceOf(DeleteResponse.class);
+        assertThat(((DeleteResponse) response.getBody()).getDeletedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteItemsByType() {
+        // Given
+        when(mockedItemHandler.deleteItemsByType(GeneratedItem.ItemType.BOARDGAMES)).thenReturn(2);
+
+        // When
+        ResponseEntity<BaseResponse> response = controller.deleteItems(null, GeneratedItem.ItemType.BOARDGAMES);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isInstanceOf(DeleteResponse.class);
+        assertThat(((DeleteResponse) response.getBody()).getDeletedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deleteItemsNoCriteria() {
+        // When
+        ResponseEntity<BaseResponse> response = controller.deleteItems(null, null);
+
+        // Then
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody().getResponseCode()).isEqualTo(UNPROCESSABLE_ENTITY.value());
+    }
+
+    private static byte[] json(ItemListModel item) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(item);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonNode writeBody(ResponseEntity<?> response) throws IOException {
+        assertThat(response.getBody()).isInstanceOf(StreamingResponseBody.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+        return OBJECT_MAPPER.readTree(outputStream.toByteArray());
+    }
 }
@@ -0,0 +1,112 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Collections;
+
+/**
+ * Sends real requests through an embedded Tomcat, configured with the compression settings of the application, to
+ * check that the entity tags of the items leave the server compression working.
+ */
+class ItemETagsCompressionTest implements WithAssertions {
+
+    private static final String BODY = "[" + String.join(",", Collections.nCopies(200, "{\"name\":\"item\"}")) + "]";
+
+    private WebServer server;
+
+    @BeforeEach
+    void setUp() {
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMimeTypes(new String[]{MediaType.APPLICATION_JSON_VALUE});
+        compression.setMinResponseSize(DataSize.ofBytes(2048));
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.setCompression(compression);
+        server = factory.getWebServer(context -> context.addServlet("item", new TaggedServlet()).addMapping("/item"));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void weakItemTagIsCompressed() throws IOException {
+        // Given
+        String eTag = ItemETags.of("id", 2, ItemETags.JSON);
+
+        // When
+        HttpURLConnection connection = get(eTag);
+
+        // Then
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(connection.getHeaderField(HttpHeaders.ETAG)).isEqualTo(eTag);
+    }
+
+    @Test
+    void weakListTagIsCompressed() throws IOException {
+        // Given
+        String eTag = ItemETags.ofList(7L, ItemETags.JSON);
+
+        // When
+        HttpURLConnection connection = get(eTag);
+
+        // Then
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void strongTagIsNotCompressed() throws IOException {
+        // Given
+        String eTag = "\"id-2\"";
+
+        // When
+        HttpURLConnection connection = get(eTag);
+
+        // Then
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    private HttpURLConnection get(String eTag) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + "/item?etag=" + URLEncoder.encode(eTag, "UTF-8"));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        try (InputStream body = connection.getInputStream()) {
+            while (body.read() != -1) {
+                // drain the body, so the connection is complete
+            }
+        }
+        return connection;
+    }
+
+    private static class TaggedServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.ETAG, request.getParameter("etag"));
+            response.getWriter().write(BODY);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ractoc.tutorials.speedment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ractoc.tutorials.speedment.model.ItemListModel;
+import com.ractoc.tutorials.speedment.response.ItemListResponse;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem.ItemType.BOARDGAMES;
+import static org.springframework.http.HttpStatus.OK;
+
+@DisplayName("Test the ItemListResponseWriter")
+class ItemListResponseWriterTest implements WithAssertions {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_NAME = "test \"quoted\" name";
+    private static final String OTHER_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String OTHER_NAME = "other name";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ItemListResponseWriter writer = new ItemListResponseWriter(objectMapper);
+
+    private final List<ItemListModel> items = Arrays.asList(
+            ItemListModel.builder().id(TEST_ID).name(TEST_NAME).itemType(BOARDGAMES).build(),
+            ItemListModel.builder().id(OTHER_ID).name(OTHER_NAME).build());
+
+    @Test
+    void writeMatchesSerializedResponse() throws IOException {
+        // When
+        byte[] written = write(items, null, null);
+
+        // Then
+        assertThat(written).isEqualTo(objectMapper.writeValueAsBytes(new ItemListResponse(OK, items)));
+    }
+
+    @Test
+    void writePageMatchesSerializedResponse() throws IOException {
+        // When
+        byte[] written = write(items, OTHER_ID, 5L);
+
+        // Then
+        assertThat(written).isEqualTo(objectMapper.writeValueAsBytes(new ItemListResponse(OK, items, OTHER_ID, 5L)));
+    }
+
+    @Test
+    void writeEmptyListMatchesSerializedResponse() throws IOException {
+        // When
+        byte[] written = write(Collections.emptyList(), null, 0L);
+
+        // Then
+        assertThat(written).isEqualTo(objectMapper.writeValueAsBytes(
+                new ItemListResponse(OK, Collections.emptyList(), null, 0L)));
+    }
+
+    private byte[] write(List<ItemListModel> models, String nextCursor, Long totalCount) throws IOException {
+        List<byte[]> fragments = new ArrayList<>();
+        for (ItemListModel model : models) {
+            fragments.add(objectMapper.writeValueAsBytes(model));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(outputStream, fragments, nextCursor, totalCount);
+        return outputStream.toByteArray();
+    }
+}
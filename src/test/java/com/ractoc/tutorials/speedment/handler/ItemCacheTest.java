@@ -0,0 +1,169 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.ractoc.tutorials.speedment.model.CacheStatistics;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@DisplayName("Test the ItemCache")
+class ItemCacheTest implements WithAssertions {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String OTHER_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_NAME = "Test Name";
+    private static final String OTHER_NAME = "other name";
+
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private ItemCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemCache(1, 60, time::get);
+    }
+
+    @Test
+    void getByIdCachesLoadedItem() {
+        // When
+        cache.getById(TEST_ID, loader(TEST_NAME));
+        ItemModel result = cache.getByName(TEST_NAME.toLowerCase(), loader(TEST_NAME));
+
+        // Then
+        assertThat(result.getId()).isEqualTo(TEST_ID);
+        assertThat(loads.get()).isEqualTo(1);
+        CacheStatistics statistics = cache.getStatistics();
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        // Given
+        cache.getById(TEST_ID, loader(TEST_NAME));
+        time.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        // When
+        cache.getById(TEST_ID, loader(TEST_NAME));
+
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getStatistics().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        // Given
+        cache.getById(TEST_ID, loader(TEST_NAME));
+
+        // When
+        cache.put(ItemModel.builder().id(OTHER_ID).name(OTHER_NAME).build());
+
+        // Then
+        assertThat(cache.getStatistics().getSize()).isEqualTo(1);
+        assertThat(cache.getStatistics().getEvictions()).isEqualTo(1);
+        cache.getById(TEST_ID, loader(TEST_NAME));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void putReplacesRenamedItem() {
+        // Given
+        cache.getById(TEST_ID, loader(TEST_NAME));
+
+        // When
+        cache.put(ItemModel.builder().id(TEST_ID).name(OTHER_NAME).build());
+
+        // Then
+        assertThat(cache.getByName(OTHER_NAME, loader(OTHER_NAME)).getId()).isEqualTo(TEST_ID);
+        assertThat(loads.get()).isEqualTo(1);
+        cache.getByName(TEST_NAME, loader(TEST_NAME));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void evictRemovesItem() {
+        // Given
+        cache.getById(TEST_ID, loader(TEST_NAME));
+
+        // When
+        cache.evict(TEST_ID);
+
+        // Then
+        assertThat(cache.getStatistics().getSize()).isZero();
+        cache.getById(TEST_ID, loader(TEST_NAME));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loadDuringWriteKeepsWrittenItem() {
+        // Given
+        Function<String, ItemModel> staleLoader = key -> {
+            // the item is renamed while its old version is being loaded
+            cache.put(ItemModel.builder().id(TEST_ID).name(OTHER_NAME).build());
+            return loader(TEST_NAME).apply(key);
+        };
+
+        // When
+        ItemModel loaded = cache.getById(TEST_ID, staleLoader);
+
+        // Then
+        assertThat(loaded.getName()).isEqualTo(TEST_NAME);
+        assertThat(cache.getById(TEST_ID, loader(TEST_NAME)).getName()).isEqualTo(OTHER_NAME);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReadsAndWritesStayWithinSize() throws Exception {
+        // Given
+        ItemCache boundedCache = new ItemCache(10, 60, time::get);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // When
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String id = Integer.toString(i % 50);
+                        if (i % 10 == 0) {
+                            boundedCache.put(ItemModel.builder().id(id).name("name " + id).build());
+                        } else {
+                            boundedCache.getById(id, key -> ItemModel.builder().id(key).name("name " + key).build());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        boundedCache.put(ItemModel.builder().id("last").name("last").build());
+
+        // Then
+        assertThat(boundedCache.getStatistics().getSize()).isLessThanOrEqualTo(10);
+        assertThat(boundedCache.getByName("NAME 7", key -> ItemModel.builder().id("7").name("name 7").build()).getId())
+                .isEqualTo("7");
+    }
+
+    private Function<String, ItemModel> loader(String name) {
+        return key -> {
+            loads.incrementAndGet();
+            return ItemModel.builder().id(TEST_ID).name(name).build();
+        };
+    }
+}
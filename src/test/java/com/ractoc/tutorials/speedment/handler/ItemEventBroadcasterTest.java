@@ -0,0 +1,181 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import info.solidsoft.mockito.java8.api.WithBDDMockito;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Test the ItemEventBroadcaster")
+@ExtendWith(MockitoExtension.class)
+class ItemEventBroadcasterTest implements WithAssertions, WithBDDMockito {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final int BUFFER_SIZE = 2;
+    private static final long TIMEOUT_MS = 1000;
+    private static final long SEND_TIMEOUT_MS = 50;
+    private static final Executor DIRECT = Runnable::run;
+    // never runs the drains, so the buffers only fill up
+    private static final Executor STALLED = task -> { };
+
+    @Mock
+    private ItemHandler mockedItemHandler;
+
+    @Test
+    void subscribeLimitedToMaxSubscribers() {
+        // Given
+        ItemEventBroadcaster broadcaster = new ItemEventBroadcaster(mockedItemHandler, BUFFER_SIZE, 1, TIMEOUT_MS, SEND_TIMEOUT_MS, DIRECT, DIRECT);
+        broadcaster.subscribe();
+
+        // When
+        boolean subscribed = broadcaster.subscribe().isPresent();
+
+        // Then
+        assertThat(subscribed).isFalse();
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void publishKeepsSubscriberThatKeepsUp() {
+        // Given
+        ItemEventBroadcaster broadcaster = new ItemEventBroadcaster(mockedItemHandler, BUFFER_SIZE, 10, TIMEOUT_MS, SEND_TIMEOUT_MS, DIRECT, DIRECT);
+        when(mockedItemHandler.toChangeModel(any(ItemChange.class))).thenAnswer(invocation -> toModel(invocation.getArgument(0)));
+        broadcaster.subscribe();
+
+        // When
+        for (long token = 1; token <= BUFFER_SIZE + 1; token++) {
+            broadcaster.publish(new ItemChange(token, TEST_ID, ItemChange.Operation.UPDATE));
+        }
+
+        // Then
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        verify(mockedItemHandler, times(BUFFER_SIZE + 1)).toChangeModel(any(ItemChange.class));
+    }
+
+    @Test
+    void publishDropsSlowSubscriber() {
+        // Given
+        ItemEventBroadcaster broadcaster = new ItemEventBroadcaster(mockedItemHandler, BUFFER_SIZE, 10, TIMEOUT_MS, SEND_TIMEOUT_MS, DIRECT, STALLED);
+        when(mockedItemHandler.toChangeModel(any(ItemChange.class))).thenAnswer(invocation -> toModel(invocation.getArgument(0)));
+        broadcaster.subscribe();
+
+        // When
+        for (long token = 1; token <= BUFFER_SIZE + 1; token++) {
+            broadcaster.publish(new ItemChange(token, TEST_ID, ItemChange.Operation.UPDATE));
+        }
+
+        // Then
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void dropFreesSubscriberSlot() {
+        // Given
+        ItemEventBroadcaster broadcaster = new ItemEventBroadcaster(mockedItemHandler, BUFFER_SIZE, 1, TIMEOUT_MS, SEND_TIMEOUT_MS, DIRECT, STALLED);
+        when(mockedItemHandler.toChangeModel(any(ItemChange.class))).thenAnswer(invocation -> toModel(invocation.getArgument(0)));
+        broadcaster.subscribe();
+        for (long token = 1; token <= BUFFER_SIZE + 1; token++) {
+            broadcaster.publish(new ItemChange(token, TEST_ID, ItemChange.Operation.UPDATE));
+        }
+
+        // When
+        boolean subscribed = broadcaster.subscribe().isPresent();
+
+        // Then
+        assertThat(subscribed).isTrue();
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stalledSendDropsSubscriberAndFreesSender() throws InterruptedException {
+        // Given
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        ItemEventBroadcaster broadcaster = new ItemEventBroadcaster(mockedItemHandler, BUFFER_SIZE, 10, TIMEOUT_MS, SEND_TIMEOUT_MS, DIRECT, sender) {
+            private int emitters;
+
+            @Override
+            SseEmitter newEmitter(long timeoutMs) {
+                // the first client stops reading, the second one keeps up
+                return emitters++ == 0 ? new SendingEmitter(unblock::await) : new SendingEmitter(delivered::countDown);
+            }
+        };
+        when(mockedItemHandler.toChangeModel(any(ItemChange.class))).thenAnswer(invocation -> toModel(invocation.getArgument(0)));
+        broadcaster.subscribe();
+        broadcaster.publish(new ItemChange(1, TEST_ID, ItemChange.Operation.UPDATE));
+        while (sender.getActiveCount() == 0) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(SEND_TIMEOUT_MS * 2);
+
+        // When
+        broadcaster.expireStalledSends();
+        broadcaster.subscribe();
+        broadcaster.publish(new ItemChange(2, TEST_ID, ItemChange.Operation.UPDATE));
+
+        // Then
+        try {
+            assertThat(delivered.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+            assertThat(sender.getCorePoolSize()).isEqualTo(2);
+        } finally {
+            unblock.countDown();
+            sender.shutdown();
+        }
+    }
+
+    @Test
+    void publishWithoutSubscribers() {
+        // Given
+        ItemEventBroadcaster broadcaster = new ItemEventBroadcaster(mockedItemHandler, BUFFER_SIZE, 10, TIMEOUT_MS, SEND_TIMEOUT_MS, DIRECT, DIRECT);
+
+        // When
+        broadcaster.publish(new ItemChange(1, TEST_ID, ItemChange.Operation.DELETE));
+
+        // Then
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+    }
+
+    @FunctionalInterface
+    private interface Send {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Runs the supplied action on every send, instead of writing to a client.
+     */
+    private static class SendingEmitter extends SseEmitter {
+        private final Send action;
+
+        private SendingEmitter(Send action) {
+            this.action = action;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                action.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static ItemChangeModel toModel(ItemChange change) {
+        return new ItemChangeModel(change.getToken(), change.getItemId(), change.getOperation(), null);
+    }
+}
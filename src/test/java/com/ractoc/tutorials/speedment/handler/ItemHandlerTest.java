@@ -1,11 +1,17 @@
 package com.ractoc.tutorials.speedment.handler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import com.ractoc.tutorials.speedment.model.ItemChangeModel;
 import com.ractoc.tutorials.speedment.model.ItemListModel;
 import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.model.ItemStatistics;
 import com.ractoc.tutorials.speedment.service.ItemBuilder;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import com.ractoc.tutorials.speedment.service.ItemField;
 import com.ractoc.tutorials.speedment.service.ItemService;
+import com.ractoc.tutorials.speedment.service.NoSuchEntryException;
 import info.solidsoft.mockito.java8.api.WithBDDMockito;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.DisplayName;
@@ -14,10 +20,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @DisplayName("Test the ItemHandler")
 @ExtendWith(MockitoExtension.class)
@@ -25,11 +42,19 @@ class ItemHandlerTest implements WithAssertions, WithBDDMockito {
 
     private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
     private static final String TEST_NAME = "test name";
+    private static final String OTHER_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String OTHER_NAME = "other name";
     private static final String TEST_DESCRIPTION = "test description";
 
     @Mock
     private ItemService mockedItemService;
 
+    @Spy
+    private ItemCache itemCache = new ItemCache(10, 60);
+
+    @Spy
+    private ItemJsonFragments jsonFragments = new ItemJsonFragments(new ObjectMapper());
+
     @InjectMocks
     private ItemHandler handler;
 
@@ -55,6 +80,236 @@ class ItemHandlerTest implements WithAssertions, WithBDDMockito {
         assertThat(result.get(0).getName()).isEqualTo(TEST_NAME);
     }
 
+    @Test
+    void getItemListPage() {
+        // Given
+        List<Item> items = new ArrayList<>();
+        items.add(baseDbItem);
+        when(mockedItemService.getItemList(null, 10)).thenReturn(items.stream());
+
+        // When
+        List<ItemListModel> result = handler.getItemList(null, 10);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(TEST_ID);
+        assertThat(result.get(0).getName()).isEqualTo(TEST_NAME);
+    }
+
+    @Test
+    void getItemListPageOfType() {
+        // Given
+        Set<GeneratedItem.ItemType> types = EnumSet.of(GeneratedItem.ItemType.BOARDGAMES);
+        List<Item> items = new ArrayList<>();
+        items.add(baseDbItem);
+        when(mockedItemService.getItemList(null, 10, types)).thenReturn(items.stream());
+
+        // When
+        List<ItemListModel> result = handler.getItemList(null, 10, types);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    void getItemListFields() {
+        // Given
+        Set<ItemField> fields = EnumSet.of(ItemField.ID, ItemField.NAME);
+        when(mockedItemService.getItemList(null, 10L, null, fields))
+                .thenReturn(Collections.singletonList(ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).build()));
+
+        // When
+        List<ItemListModel> result = handler.getItemList(null, 10L, null, fields);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(TEST_ID);
+        assertThat(result.get(0).getName()).isEqualTo(TEST_NAME);
+    }
+
+    @Test
+    void writeItemList() throws IOException {
+        // Given
+        List<Item> items = new ArrayList<>();
+        items.add(baseDbItem);
+        items.add(ItemBuilder.builder().id(OTHER_ID).name(OTHER_NAME).lead(TEST_DESCRIPTION).build());
+        when(mockedItemService.getItemList(null, ItemHandler.NDJSON_PAGE_SIZE)).thenReturn(items.stream());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        handler.writeItemList(outputStream);
+
+        // Then
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains(TEST_ID).contains(TEST_NAME);
+        assertThat(lines[1]).startsWith("{").contains(OTHER_ID).contains(OTHER_NAME);
+    }
+
+    @Test
+    void writeItemListPaged() throws IOException {
+        // Given
+        List<Item> firstPage = new ArrayList<>();
+        for (int i = 0; i < ItemHandler.NDJSON_PAGE_SIZE; i++) {
+            firstPage.add(ItemBuilder.builder().id(String.format("%08d", i)).name(TEST_NAME + i).build());
+        }
+        String lastId = firstPage.get(firstPage.size() - 1).getId();
+        when(mockedItemService.getItemList(null, ItemHandler.NDJSON_PAGE_SIZE)).thenReturn(firstPage.stream());
+        when(mockedItemService.getItemList(lastId, ItemHandler.NDJSON_PAGE_SIZE)).thenReturn(Stream.of(baseDbItem));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        handler.writeItemList(outputStream);
+
+        // Then
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(ItemHandler.NDJSON_PAGE_SIZE + 1);
+        assertThat(lines[ItemHandler.NDJSON_PAGE_SIZE]).contains(TEST_ID);
+    }
+
+    @Test
+    void writeItemListWriteFails() {
+        // Given
+        when(mockedItemService.getItemList(null, ItemHandler.NDJSON_PAGE_SIZE)).thenReturn(Stream.of(baseDbItem));
+        OutputStream outputStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        // When
+        Throwable thrown = catchThrowable(() -> handler.writeItemList(outputStream));
+
+        // Then
+        assertThat(thrown).isInstanceOf(IOException.class).hasMessage("connection reset");
+    }
+
+    @Test
+    void getItemJsonList() throws IOException {
+        // Given
+        List<Item> items = new ArrayList<>();
+        items.add(baseDbItem);
+        items.add(ItemBuilder.builder().id(OTHER_ID).name(OTHER_NAME).lead(TEST_DESCRIPTION).build());
+        when(mockedItemService.getItemList()).thenReturn(items.stream(), items.stream());
+        List<byte[]> first = handler.getItemJsonList();
+
+        // When
+        List<byte[]> result = handler.getItemJsonList();
+
+        // Then
+        assertThat(result).hasSize(2);
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThat(objectMapper.readTree(result.get(0)).get("id").asText()).isEqualTo(TEST_ID);
+        assertThat(objectMapper.readTree(result.get(1)).get("name").asText()).isEqualTo(OTHER_NAME);
+        // the second call reuses the fragments of the first
+        assertThat(result.get(0)).isSameAs(first.get(0));
+        assertThat(jsonFragments.size()).isEqualTo(2);
+        verify(jsonFragments, times(4)).get(any(Item.class));
+    }
+
+    @Test
+    void getItemJsonPageFirstPage() throws IOException {
+        // Given
+        Item otherDbItem = ItemBuilder.builder().id(OTHER_ID).name(OTHER_NAME).lead(TEST_DESCRIPTION).build();
+        when(mockedItemService.getItemList(null, 2L)).thenReturn(Stream.of(baseDbItem, otherDbItem));
+
+        // When
+        ItemJsonPage page = handler.getItemJsonPage(null, 1, null);
+
+        // Then
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(new ObjectMapper().readTree(page.getItems().get(0)).get("id").asText()).isEqualTo(TEST_ID);
+        assertThat(page.getNextCursor()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    void getItemJsonPageLastPageOfType() {
+        // Given
+        Set<GeneratedItem.ItemType> types = EnumSet.of(GeneratedItem.ItemType.BOARDGAMES);
+        when(mockedItemService.getItemList(TEST_ID, 11L, types)).thenReturn(Stream.of(baseDbItem));
+
+        // When
+        ItemJsonPage page = handler.getItemJsonPage(TEST_ID, 10, types);
+
+        // Then
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+        verify(mockedItemService, never()).getItemList(anyString(), anyLong());
+    }
+
+    @Test
+    void getItemCount() {
+        // Given
+        when(mockedItemService.getItemCount()).thenReturn(3L);
+
+        // When
+        long result = handler.getItemCount();
+
+        // Then
+        assertThat(result).isEqualTo(3L);
+    }
+
+    @Test
+    void getChanges() {
+        // Given
+        when(mockedItemService.getChanges(5L, 10)).thenReturn(Arrays.asList(
+                new ItemChange(6L, TEST_ID, ItemChange.Operation.UPDATE),
+                new ItemChange(7L, OTHER_ID, ItemChange.Operation.CREATE),
+                new ItemChange(8L, OTHER_ID, ItemChange.Operation.DELETE)));
+        when(mockedItemService.getItemById(TEST_ID)).thenReturn(baseDbItem);
+        when(mockedItemService.getItemById(OTHER_ID)).thenThrow(new NoSuchEntryException("test"));
+
+        // When
+        List<ItemChangeModel> result = handler.getChanges(5L, 10);
+
+        // Then
+        assertThat(result).extracting(ItemChangeModel::getToken).containsExactly(6L, 7L, 8L);
+        assertThat(result.get(0).getItem().getName()).isEqualTo(TEST_NAME);
+        assertThat(result.get(1).getItem()).isNull();
+        assertThat(result.get(2).getItem()).isNull();
+        verify(mockedItemService, times(1)).getItemById(OTHER_ID);
+    }
+
+    @Test
+    void toChangeModelUsesWrittenItem() {
+        // Given
+        ItemChange change = new ItemChange(6L, TEST_ID, ItemChange.Operation.UPDATE, baseDbItem);
+
+        // When
+        ItemChangeModel result = handler.toChangeModel(change);
+
+        // Then
+        assertThat(result.getItem().getName()).isEqualTo(TEST_NAME);
+        verify(mockedItemService, never()).getItemById(anyString());
+    }
+
+    @Test
+    void getItemStatistics() {
+        // Given
+        when(mockedItemService.getItemCountsByType()).thenReturn(Collections.singletonMap(GeneratedItem.ItemType.BOARDGAMES, 3L));
+
+        // When
+        ItemStatistics result = handler.getItemStatistics();
+
+        // Then
+        assertThat(result.getTotalCount()).isEqualTo(3L);
+        assertThat(result.getCountsByType()).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 3L);
+    }
+
+    @Test
+    void getItemVersionById() {
+        // Given
+        when(mockedItemService.getItemVersionById(TEST_ID)).thenReturn(OptionalInt.of(2));
+
+        // When
+        OptionalInt result = handler.getItemVersionById(TEST_ID);
+
+        // Then
+        assertThat(result).hasValue(2);
+    }
+
     @Test
     void getItemByName() {
         // Given
@@ -83,6 +338,36 @@ class ItemHandlerTest implements WithAssertions, WithBDDMockito {
         assertThat(result.getName()).isEqualTo(TEST_NAME);
     }
 
+    @Test
+    void searchItems() {
+        // Given
+        when(mockedItemService.searchItems("test", 10)).thenReturn(Collections.singletonList(baseDbItem));
+
+        // When
+        List<ItemListModel> result = handler.searchItems("test", 10);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    void getItemByIdCached() {
+        // Given
+        when(mockedItemService.getItemById(TEST_ID)).thenReturn(baseDbItem);
+
+        // When
+        handler.getItemById(TEST_ID);
+        ItemModel result = handler.getItemByName(TEST_NAME);
+
+        // Then
+        verify(mockedItemService, times(1)).getItemById(TEST_ID);
+        verify(mockedItemService, never()).getItemByName(TEST_NAME);
+        assertThat(result.getId()).isEqualTo(TEST_ID);
+        assertThat(handler.getCacheStatistics().getHits()).isEqualTo(1);
+        assertThat(handler.getCacheStatistics().getMisses()).isEqualTo(1);
+    }
+
     @Test
     void saveItem() {
         // Given
@@ -108,17 +393,32 @@ class ItemHandlerTest implements WithAssertions, WithBDDMockito {
         assertThat(result.getLead()).isEqualTo(TEST_DESCRIPTION);
     }
 
+    @Test
+    void saveItems() {
+        // Given
+        when(mockedItemService.saveItems(anyList())).thenReturn(Collections.singletonList(baseDbItem));
+
+        // When
+        List<ItemModel> result = handler.saveItems(Collections.singletonList(baseItemModel));
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(TEST_ID);
+        assertThat(result.get(0).getName()).isEqualTo(TEST_NAME);
+        verify(itemCache).put(result.get(0));
+    }
+
     @Test
     void updateItem() {
         // Given
         ArgumentCaptor<Item> dbItemCaptor = ArgumentCaptor.forClass(Item.class);
-        when(mockedItemService.updateItem(any(Item.class))).thenReturn(baseDbItem);
+        when(mockedItemService.updateItem(any(Item.class), isNull())).thenReturn(baseDbItem);
 
         // When
         ItemModel result = handler.updateItem(updateItemModel);
 
         // Then
-        verify(mockedItemService).updateItem(dbItemCaptor.capture());
+        verify(mockedItemService).updateItem(dbItemCaptor.capture(), isNull());
         Item dbItemResult = dbItemCaptor.getValue();
         assertThat(dbItemResult).isNotNull();
         assertThat(dbItemResult.getId()).isNotNull();
@@ -143,5 +443,33 @@ class ItemHandlerTest implements WithAssertions, WithBDDMockito {
 
         // Then
         verify(mockedItemService).deleteItem(TEST_ID);
+        verify(itemCache).evict(TEST_ID);
+    }
+
+    @Test
+    void deleteItems() {
+        // Given
+        List<String> ids = Collections.singletonList(TEST_ID);
+        when(mockedItemService.deleteItems(ids)).thenReturn(1);
+
+        // When
+        int result = handler.deleteItems(ids);
+
+        // Then
+        assertThat(result).isEqualTo(1);
+        verify(itemCache).evict(TEST_ID);
+    }
+
+    @Test
+    void deleteItemsByType() {
+        // Given
+        when(mockedItemService.deleteItemsByType(GeneratedItem.ItemType.BOARDGAMES)).thenReturn(2);
+
+        // When
+        int result = handler.deleteItemsByType(GeneratedItem.ItemType.BOARDGAMES);
+
+        // Then
+        assertThat(result).isEqualTo(2);
+        verify(itemCache).clear();
     }
 }
@@ -0,0 +1,92 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.service.ItemBuilder;
+import com.ractoc.tutorials.speedment.service.ItemChange;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+@DisplayName("Test the ItemJsonFragments")
+class ItemJsonFragmentsTest implements WithAssertions {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_NAME = "test name";
+    private static final String OTHER_NAME = "other name";
+    private static final String TEST_LEAD = "test description";
+
+    private final ItemJsonFragments fragments = new ItemJsonFragments(new ObjectMapper());
+
+    @Test
+    void getEncodesListModel() {
+        // Given
+        Item item = ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).lead(TEST_LEAD).build();
+
+        // When
+        String json = new String(fragments.get(item), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(json).startsWith("{").contains(TEST_ID).contains(TEST_NAME).doesNotContain(TEST_LEAD);
+        assertThat(fragments.size()).isEqualTo(1);
+    }
+
+    @Test
+    void getNeverIndents() {
+        // Given
+        ItemJsonFragments indentingFragments =
+                new ItemJsonFragments(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+
+        // When
+        String json = new String(indentingFragments.get(ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).build()),
+                StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(json).doesNotContain("\n").doesNotContain(": ");
+    }
+
+    @Test
+    void getReusesFragmentOfSameVersion() {
+        // Given
+        byte[] first = fragments.get(ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).build());
+
+        // When
+        byte[] second = fragments.get(ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).build());
+
+        // Then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void getEncodesNewVersion() {
+        // Given
+        fragments.get(ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).build());
+        Item updated = ItemBuilder.builder().id(TEST_ID).name(OTHER_NAME).build();
+        updated.setVersion(1);
+
+        // When
+        String json = new String(fragments.get(updated), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(json).contains(OTHER_NAME).doesNotContain(TEST_NAME);
+        assertThat(fragments.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evictOnDelete() {
+        // Given
+        fragments.get(ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).build());
+
+        // When
+        fragments.evict(new ItemChange(1, TEST_ID, ItemChange.Operation.UPDATE));
+        int sizeAfterUpdate = fragments.size();
+        fragments.evict(new ItemChange(2, TEST_ID, ItemChange.Operation.DELETE));
+
+        // Then
+        assertThat(sizeAfterUpdate).isEqualTo(1);
+        assertThat(fragments.size()).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ractoc.tutorials.speedment.handler;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.model.ItemModel;
+import com.ractoc.tutorials.speedment.service.ItemBuilder;
+import com.ractoc.tutorials.speedment.service.ItemService;
+import com.ractoc.tutorials.speedment.service.NoSuchEntryException;
+import info.solidsoft.mockito.java8.api.WithBDDMockito;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@DisplayName("Test the ReactiveItemHandler")
+@ExtendWith(MockitoExtension.class)
+class ReactiveItemHandlerTest implements WithAssertions, WithBDDMockito {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_NAME = "test name";
+    private static final String OTHER_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String OTHER_NAME = "other name";
+    private static final String THIRD_ID = "a7924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_DESCRIPTION = "test description";
+    private static final int PAGE_SIZE = 2;
+
+    @Mock
+    private ItemService mockedItemService;
+
+    @Mock
+    private ItemHandler mockedItemHandler;
+
+    private ReactiveItemHandler handler;
+
+    private Item baseDbItem = ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).lead(TEST_DESCRIPTION).build();
+    private Item otherDbItem = ItemBuilder.builder().id(OTHER_ID).name(OTHER_NAME).lead(TEST_DESCRIPTION).build();
+    private Item thirdDbItem = ItemBuilder.builder().id(THIRD_ID).name(TEST_NAME).lead(TEST_DESCRIPTION).build();
+
+    @BeforeEach
+    void setUp() {
+        handler = new ReactiveItemHandler(mockedItemService, mockedItemHandler, PAGE_SIZE);
+    }
+
+    @Test
+    void getItemList() {
+        // Given
+        when(mockedItemService.getItemList(null, PAGE_SIZE)).thenReturn(Stream.of(baseDbItem, otherDbItem));
+        when(mockedItemService.getItemList(OTHER_ID, PAGE_SIZE)).thenReturn(Stream.of(thirdDbItem));
+
+        // When, Then
+        StepVerifier.create(handler.getItemList())
+                .assertNext(item -> assertThat(item.getId()).isEqualTo(TEST_ID))
+                .assertNext(item -> assertThat(item.getId()).isEqualTo(OTHER_ID))
+                .assertNext(item -> assertThat(item.getId()).isEqualTo(THIRD_ID))
+                .verifyComplete();
+        verify(mockedItemService, never()).getItemList();
+        verify(mockedItemService, never()).getItemList(THIRD_ID, PAGE_SIZE);
+    }
+
+    @Test
+    void getItemListClosesPageBeforeEmitting() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(mockedItemService.getItemList(null, PAGE_SIZE)).thenReturn(Stream.of(baseDbItem)
+                .onClose(() -> closed.set(true)));
+
+        // When, Then
+        StepVerifier.create(handler.getItemList(), 1)
+                .assertNext(item -> assertThat(closed).isTrue())
+                .verifyComplete();
+    }
+
+    @Test
+    void getItemById() {
+        // Given
+        ItemModel item = ItemModel.builder().id(TEST_ID).name(TEST_NAME).lead(TEST_DESCRIPTION).build();
+        when(mockedItemHandler.getItemById(TEST_ID)).thenReturn(item);
+
+        // When, Then
+        StepVerifier.create(handler.getItemById(TEST_ID))
+                .expectNext(item)
+                .verifyComplete();
+    }
+
+    @Test
+    void getItemByNameNoSuchEntry() {
+        // Given
+        when(mockedItemHandler.getItemByName(TEST_NAME)).thenThrow(new NoSuchEntryException("not found"));
+
+        // When, Then
+        StepVerifier.create(handler.getItemByName(TEST_NAME))
+                .verifyError(NoSuchEntryException.class);
+    }
+}
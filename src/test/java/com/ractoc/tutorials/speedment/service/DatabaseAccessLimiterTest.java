@@ -0,0 +1,59 @@
+package com.ractoc.tutorials.speedment.service;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Test the DatabaseAccessLimiter")
+class DatabaseAccessLimiterTest implements WithAssertions {
+
+    private static final int MAX_CONCURRENCY = 1;
+    private static final long TIMEOUT_MILLIS = 10;
+
+    private DatabaseAccessLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new DatabaseAccessLimiter(MAX_CONCURRENCY, TIMEOUT_MILLIS);
+    }
+
+    @Test
+    void callReleasesPermit() {
+        // When
+        String result = limiter.call(() -> "result");
+
+        // Then
+        assertThat(result).isEqualTo("result");
+        assertThat(limiter.availablePermits()).isEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void callReleasesPermitOnException() {
+        // When
+        assertThrows(IllegalStateException.class, () -> limiter.call(() -> {
+            throw new IllegalStateException();
+        }));
+
+        // Then
+        assertThat(limiter.availablePermits()).isEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void streamHoldsPermitUntilClosed() {
+        // Given
+        Stream<String> stream = limiter.stream(() -> Stream.of("first", "second"));
+
+        // When
+        assertThrows(ServiceException.class, () -> limiter.call(() -> "blocked"));
+        stream.close();
+        stream.close();
+
+        // Then
+        assertThat(limiter.availablePermits()).isEqualTo(MAX_CONCURRENCY);
+    }
+}
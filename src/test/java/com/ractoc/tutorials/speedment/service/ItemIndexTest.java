@@ -0,0 +1,201 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@DisplayName("Test the ItemIndex")
+class ItemIndexTest implements WithAssertions {
+
+    private static final String TEST_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String OTHER_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String TEST_NAME = "Test Name";
+    private static final String TEST_LEAD = "test lead";
+    private static final String UPDATED_NAME = "updated name";
+    private static final String OTHER_NAME = "other name";
+
+    private ItemIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Item item = ItemBuilder.builder().id(TEST_ID).name(TEST_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+        index = new ItemIndex(Stream.of(item));
+    }
+
+    @Test
+    void findById() {
+        // When
+        Optional<Item> result = index.findById(TEST_ID.toUpperCase());
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getName()).isEqualTo(TEST_NAME);
+        assertThat(index.containsId(TEST_ID)).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void findByNameIgnoresCase() {
+        // When
+        Optional<Item> result = index.findByName(TEST_NAME.toLowerCase());
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    void putReplacesName() {
+        // Given
+        Item item = ItemBuilder.builder().id(TEST_ID).name(UPDATED_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+
+        // When
+        index.put(item);
+
+        // Then
+        assertThat(index.findByName(TEST_NAME)).isNotPresent();
+        assertThat(index.findByName(UPDATED_NAME)).isPresent();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove() {
+        // When
+        index.remove(TEST_ID, 0);
+
+        // Then
+        assertThat(index.findById(TEST_ID)).isNotPresent();
+        assertThat(index.findByName(TEST_NAME)).isNotPresent();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void putIgnoresOlderVersion() {
+        // Given
+        Item updated = ItemBuilder.builder().id(TEST_ID).name(UPDATED_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+        updated.setVersion(2);
+        index.put(updated);
+        Item stale = ItemBuilder.builder().id(TEST_ID).name(OTHER_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+        stale.setVersion(1);
+
+        // When
+        boolean result = index.put(stale);
+
+        // Then
+        assertThat(result).isFalse();
+        assertThat(index.findById(TEST_ID).map(Item::getName)).contains(UPDATED_NAME);
+        assertThat(index.findByName(OTHER_NAME)).isNotPresent();
+    }
+
+    @Test
+    void putIgnoresRemovedItem() {
+        // Given
+        Item updated = ItemBuilder.builder().id(TEST_ID).name(UPDATED_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+        updated.setVersion(1);
+        index.remove(TEST_ID, 1);
+
+        // When
+        boolean result = index.put(updated);
+
+        // Then
+        assertThat(result).isFalse();
+        assertThat(index.findById(TEST_ID)).isNotPresent();
+        assertThat(index.findByName(UPDATED_NAME)).isNotPresent();
+        assertThat(index.containsId(TEST_ID)).isTrue();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void putConcurrentlyWithRemoveKeepsItemRemoved() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 100; round++) {
+                String id = UUID.randomUUID().toString();
+                index.put(ItemBuilder.builder().id(id).name("item " + round).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build());
+                // the update is committed before the delete, but may reach the index after it
+                Item updated = ItemBuilder.builder().id(id).name(UPDATED_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+                updated.setVersion(1);
+                CountDownLatch start = new CountDownLatch(1);
+
+                // When
+                Future<Boolean> put = executor.submit(() -> {
+                    start.await();
+                    return index.put(updated);
+                });
+                Future<Optional<Item>> remove = executor.submit(() -> {
+                    start.await();
+                    return index.remove(id, 1);
+                });
+                start.countDown();
+                put.get(10, TimeUnit.SECONDS);
+                remove.get(10, TimeUnit.SECONDS);
+
+                // Then
+                assertThat(index.findById(id)).isNotPresent();
+                assertThat(index.findByName(UPDATED_NAME)).isNotPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void findByTypes() {
+        // Given
+        index.put(ItemBuilder.builder().id(OTHER_ID).name(UPDATED_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build());
+
+        // When
+        Stream<Item> result = index.findByTypes(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES), null);
+
+        // Then
+        assertThat(result.map(Item::getId)).containsExactly(TEST_ID, OTHER_ID);
+    }
+
+    @Test
+    void findByTypesAfter() {
+        // Given
+        index.put(ItemBuilder.builder().id(OTHER_ID).name(UPDATED_NAME).lead(TEST_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build());
+
+        // When
+        Stream<Item> result = index.findByTypes(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES), TEST_ID.toUpperCase());
+
+        // Then
+        assertThat(result.map(Item::getId)).containsExactly(OTHER_ID);
+    }
+
+    @Test
+    void removeUpdatesTypes() {
+        // When
+        Optional<Item> result = index.remove(TEST_ID, 0);
+
+        // Then
+        assertThat(result.map(Item::getItemType)).contains(GeneratedItem.ItemType.BOARDGAMES);
+        assertThat(index.findByTypes(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES), null)).isEmpty();
+    }
+
+    @Test
+    void returnedItemsAreCopies() {
+        // Given
+        Item item = index.findById(TEST_ID).orElseThrow(IllegalStateException::new);
+
+        // When
+        item.setName(UPDATED_NAME);
+
+        // Then
+        assertThat(index.findById(TEST_ID).map(Item::getName)).contains(TEST_NAME);
+    }
+}
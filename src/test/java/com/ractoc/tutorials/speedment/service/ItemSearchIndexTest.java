@@ -0,0 +1,104 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+@DisplayName("Test the ItemSearchIndex")
+class ItemSearchIndexTest implements WithAssertions {
+
+    private static final String CATAN_ID = "17924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String CATAN_SEAFARERS_ID = "87924b6e-408d-4d7d-b551-ce181017488e";
+    private static final String CARCASSONNE_ID = "97924b6e-408d-4d7d-b551-ce181017488e";
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(Stream.of(
+                item(CATAN_SEAFARERS_ID, "Catan: Seafarers", "Expansion for the Catan base game"),
+                item(CATAN_ID, "Catan", "Trade and build settlements"),
+                item(CARCASSONNE_ID, "Carcassonne", "Tile laying game, with a cat on the box")));
+    }
+
+    @Test
+    void searchPrefixRanksNameMatchesFirst() {
+        // When, Then
+        assertThat(index.search("Ca", 10)).containsExactly(CATAN_ID, CARCASSONNE_ID, CATAN_SEAFARERS_ID);
+    }
+
+    @Test
+    void searchWordRanksExactNameFirst() {
+        // When, Then
+        assertThat(index.search("catan", 10)).containsExactly(CATAN_ID, CATAN_SEAFARERS_ID);
+    }
+
+    @Test
+    void searchAllWordsHaveToMatch() {
+        // When, Then
+        assertThat(index.search("catan sea", 10)).containsExactly(CATAN_SEAFARERS_ID);
+    }
+
+    @Test
+    void searchMatchesLead() {
+        // When, Then
+        assertThat(index.search("tile", 10)).containsExactly(CARCASSONNE_ID);
+    }
+
+    @Test
+    void searchIsLimited() {
+        // When, Then
+        assertThat(index.search("ca", 1)).containsExactly(CATAN_ID);
+    }
+
+    @Test
+    void searchSingleLetterMatchesWholeWordsOnly() {
+        // When, Then
+        assertThat(index.search("a", 10)).containsExactly(CARCASSONNE_ID);
+    }
+
+    @Test
+    void searchCandidatesAreCapped() {
+        // Given
+        ItemSearchIndex cappedIndex = new ItemSearchIndex(Stream.of(
+                item(CATAN_ID, "Catan", "Trade and build settlements"),
+                item(CARCASSONNE_ID, "Carcassonne", "Tile laying game, with a cat on the box")), 1);
+
+        // When, Then
+        assertThat(cappedIndex.search("ca", 10)).containsExactly(CARCASSONNE_ID);
+    }
+
+    @Test
+    void searchWithoutWords() {
+        // When, Then
+        assertThat(index.search(" :: ", 10)).isEmpty();
+    }
+
+    @Test
+    void putReplacesWords() {
+        // When
+        index.put(item(CATAN_ID, "Ticket to Ride", "Trains"));
+
+        // Then
+        assertThat(index.search("catan", 10)).containsExactly(CATAN_SEAFARERS_ID);
+        assertThat(index.search("tick", 10)).containsExactly(CATAN_ID);
+    }
+
+    @Test
+    void remove() {
+        // When
+        index.remove(CATAN_ID.toUpperCase());
+
+        // Then
+        assertThat(index.search("catan", 10)).containsExactly(CATAN_SEAFARERS_ID);
+    }
+
+    private static Item item(String id, String name, String lead) {
+        return ItemBuilder.builder().id(id).name(name).lead(lead).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+    }
+}
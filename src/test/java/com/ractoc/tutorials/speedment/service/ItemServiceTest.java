@@ -1,16 +1,30 @@
 package com.ractoc.tutorials.speedment.service;
 
 import ch.vorburger.exec.ManagedProcessException;
+import com.ractoc.tutorials.speedment.db.SpeedmentApplication;
 import com.ractoc.tutorials.speedment.db.SpeedmentApplicationBuilder;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.Item;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.ItemManager;
 import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.WithAssertions;
 import org.dbunit.DatabaseUnitException;
 import org.junit.jupiter.api.*;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -22,6 +36,7 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
 
     public static final String DATASET_INITIAL = "datasets/initial.xml";
     public static final String DATASET_SAVE = "datasets/save.xml";
+    public static final String DATASET_SAVE_BATCH = "datasets/save-batch.xml";
     public static final String DATASET_UPDATE = "datasets/update.xml";
     public static final String DATASET_DELETE = "datasets/delete.xml";
     public static final int PORT_NUMBER = 1234;
@@ -36,13 +51,22 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
     public static final String MORE_TESTS = "more tests";
     public static final String NEW_ITEM_ID = "f5d58333-0e06-4824-94f6-eb99995ea5dd";
     public static final String ITEM_LEAD = "base lead";
+    public static final String SECOND_NAME = "second name";
+    public static final String SECOND_DESCRIPTION = "second description";
     public static final String UNKNOWN_NAME = "unknown name";
     public static final String UNKNOWN_ID = "unknown id";
+    public static final String OTHER_ITEM_ID = "0a8e4bc6-7c1c-4c8e-9a65-8d1f2c3e4b5a";
     public static final String UNKNOWN_ITEM_ID = "e00f7211-1982-40c1-ac96-b04c3a44abcde";
+    public static final int MAX_DB_CONCURRENCY = 10;
+    public static final long DB_ACQUIRE_TIMEOUT_MS = 1000;
+    public static final long CHANGE_RETENTION_MS = 60_000;
 
     private ItemService service;
+    private ItemSqlExecutor sqlExecutor;
+    private MeterRegistry meterRegistry;
 
     private Item baseItem = ItemBuilder.builder().name(ITEM_NAME).lead(ITEM_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+    private Item secondItem = ItemBuilder.builder().name(SECOND_NAME).lead(SECOND_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
     private Item updateItem = ItemBuilder.builder().id(ITEM_ID).name(ITEM_NAME).lead(ITEM_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
 
     @BeforeAll
@@ -57,8 +81,7 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
 
     @BeforeEach
     void setUp() {
-        ItemManager itemManager;
-        itemManager = new SpeedmentApplicationBuilder()
+        SpeedmentApplication app = new SpeedmentApplicationBuilder()
                 .withPassword(DB_PASSWORD)
                 .withConnectionUrl(dbUrl)
                 .withLogging(STREAM)
@@ -67,8 +90,15 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
                 .withLogging(UPDATE)
                 .withParam("db.mysql.collationName", "utf8mb4_general_ci")
                 .withParam("db.mysql.binaryCollationName", "utf8mb4_bin")
-                .build().getOrThrow(ItemManager.class);
-        service = new ItemService(itemManager);
+                .build();
+        sqlExecutor = new ItemSqlExecutor(app);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ItemService(app.getOrThrow(ItemManager.class),
+                new ItemChangeLog(sqlExecutor, CHANGE_RETENTION_MS, 0),
+                sqlExecutor,
+                new TimeOrderedItemIdGenerator(),
+                new ItemMetrics(meterRegistry),
+                new DatabaseAccessLimiter(MAX_DB_CONCURRENCY, DB_ACQUIRE_TIMEOUT_MS));
     }
 
     @Test
@@ -83,6 +113,214 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         assertThat(resultItems).containsExactlyInAnyOrder(CREATE_TEST, MORE_TESTS);
     }
 
+    @Test
+    void getItemListForEachOrdered() {
+        // Given
+        List<String> resultItems = new ArrayList<>();
+
+        // When
+        try (Stream<Item> result = service.getItemList()) {
+            result.forEachOrdered(item -> resultItems.add(item.getName()));
+        }
+
+        // Then
+        assertThat(resultItems).containsExactlyInAnyOrder(CREATE_TEST, MORE_TESTS);
+    }
+
+    @Test
+    void getItemListRecordsMetricsWhenClosed() {
+        // Given
+        long streams = meterRegistry.get(ItemMetrics.OPERATION_TIMER).tag("operation", "stream").timer().count();
+
+        // When
+        try (Stream<Item> result = service.getItemList()) {
+            result.count();
+        }
+
+        // Then
+        assertThat(meterRegistry.get(ItemMetrics.OPERATION_TIMER).tag("operation", "stream").timer().count())
+                .isEqualTo(streams + 1);
+    }
+
+    @Test
+    void getItemListFirstPage() {
+        // When
+        Stream<Item> result = service.getItemList(null, 1);
+
+        // Then
+        List<String> resultItems = result.map(Item::getName).collect(Collectors.toList());
+        assertThat(resultItems).containsExactly(CREATE_TEST);
+    }
+
+    @Test
+    void getItemListNextPage() {
+        // When
+        Stream<Item> result = service.getItemList(ITEM_ID, 10);
+
+        // Then
+        List<String> resultItems = result.map(Item::getName).collect(Collectors.toList());
+        assertThat(resultItems).containsExactly(MORE_TESTS);
+    }
+
+    @Test
+    void getItemListPageMatchesPageOfAllTypes() {
+        // Given
+        Item savedItem = service.saveItem(baseItem);
+
+        // When
+        List<String> page = service.getItemList(null, 10).map(Item::getId).collect(Collectors.toList());
+        List<String> typedPage = service.getItemList(null, 10, EnumSet.allOf(GeneratedItem.ItemType.class))
+                .map(Item::getId).collect(Collectors.toList());
+        List<String> nextPage = service.getItemList(ITEM_ID.toUpperCase(), 10).map(Item::getId).collect(Collectors.toList());
+
+        // Then
+        assertThat(page).containsExactlyInAnyOrder(ITEM_ID, NEW_ITEM_ID, savedItem.getId()).isSorted().isEqualTo(typedPage);
+        assertThat(nextPage).containsExactly(NEW_ITEM_ID);
+    }
+
+    @Test
+    void getItemListOfTypeFirstPage() {
+        // When
+        Stream<Item> result = service.getItemList(null, 1, EnumSet.of(GeneratedItem.ItemType.BOARDGAMES));
+
+        // Then
+        assertThat(result.map(Item::getName)).containsExactly(CREATE_TEST);
+    }
+
+    @Test
+    void getItemListOfTypeIncludesSavedItem() {
+        // Given
+        Item savedItem = service.saveItem(baseItem);
+
+        // When
+        Stream<Item> result = service.getItemList(EnumSet.of(baseItem.getItemType()));
+
+        // Then
+        assertThat(result.map(Item::getId)).contains(savedItem.getId());
+    }
+
+    @Test
+    void getItemListOfTypeNextPage() {
+        // When
+        Stream<Item> result = service.getItemList(ITEM_ID, 10, EnumSet.of(GeneratedItem.ItemType.BOARDGAMES));
+
+        // Then
+        List<String> resultItems = result.map(Item::getName).collect(Collectors.toList());
+        assertThat(resultItems).containsExactly(MORE_TESTS);
+    }
+
+    @Test
+    void getItemListFields() {
+        // When
+        List<Item> result = service.getItemList(null, Long.MAX_VALUE, null, EnumSet.of(ItemField.NAME));
+
+        // Then
+        assertThat(result).extracting(Item::getId).containsExactly(ITEM_ID, NEW_ITEM_ID);
+        assertThat(result).extracting(Item::getName).containsExactly(CREATE_TEST, MORE_TESTS);
+        assertThat(result).extracting(Item::getLead).containsOnlyNulls();
+        assertThat(result).extracting(Item::getItemType).containsOnlyNulls();
+    }
+
+    @Test
+    void getItemListFieldsOfTypeNextPage() {
+        // When
+        List<Item> result = service.getItemList(ITEM_ID, 10, EnumSet.of(GeneratedItem.ItemType.BOARDGAMES),
+                EnumSet.of(ItemField.ITEM_TYPE));
+
+        // Then
+        assertThat(result).extracting(Item::getId).containsExactly(NEW_ITEM_ID);
+        assertThat(result).extracting(Item::getItemType).containsExactly(GeneratedItem.ItemType.BOARDGAMES);
+        assertThat(result).extracting(Item::getName).containsOnlyNulls();
+    }
+
+    @Test
+    void getItemCountOfType() {
+        // When
+        long result = service.getItemCount(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES));
+
+        // Then
+        assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    void getItemCount() {
+        // When
+        long result = service.getItemCount();
+
+        // Then
+        assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    void getItemCountsByType() {
+        // When
+        Map<GeneratedItem.ItemType, Long> result = service.getItemCountsByType();
+
+        // Then
+        assertThat(result).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 2L);
+    }
+
+    @Test
+    void getItemCountsByTypeFollowsWrites() {
+        // Given
+        Item savedItem = service.saveItem(baseItem);
+        service.deleteItem(ITEM_ID);
+        service.deleteItem(UNKNOWN_ITEM_ID);
+
+        // When
+        Map<GeneratedItem.ItemType, Long> result = service.getItemCountsByType();
+
+        // Then
+        assertThat(result).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 2L);
+        assertThat(service.getItemCount(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES))).isEqualTo(2);
+        service.deleteItem(savedItem.getId());
+        assertThat(service.getItemCountsByType()).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 1L);
+    }
+
+    @Test
+    void getChangeCountIncrementsOnWrite() {
+        // Given
+        long before = service.getChangeCount();
+
+        // When
+        service.saveItem(baseItem);
+        service.deleteItem(ITEM_ID);
+
+        // Then
+        assertThat(service.getChangeCount()).isEqualTo(before + 2);
+    }
+
+    @Test
+    void getChangeCountUnchangedWhenNothingDeleted() {
+        // Given
+        long before = service.getChangeCount();
+
+        // When
+        service.deleteItem(UNKNOWN_ITEM_ID);
+        int deleted = service.deleteItems(Collections.singletonList(UNKNOWN_ITEM_ID));
+
+        // Then
+        assertThat(deleted).isZero();
+        assertThat(service.getChangeCount()).isEqualTo(before);
+    }
+
+    @Test
+    void getItemVersionById() {
+        // When
+        service.updateItem(updateItem, null);
+
+        // Then
+        assertThat(service.getItemVersionById(ITEM_ID)).hasValue(1);
+        assertThat(service.getItemVersionById(UNKNOWN_ITEM_ID)).isEmpty();
+    }
+
+    @Test
+    void getItemIdByName() {
+        // Then
+        assertThat(service.getItemIdByName(CREATE_TEST)).contains(ITEM_ID);
+        assertThat(service.getItemIdByName(UNKNOWN_NAME)).isEmpty();
+    }
+
     @Test
     void getItemByName() {
         // When
@@ -93,6 +331,37 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         assertThat(result.getId()).isEqualTo(ITEM_ID);
     }
 
+    @Test
+    void searchItems() {
+        // When
+        List<Item> result = service.searchItems("Mor", 10);
+
+        // Then
+        assertThat(result).extracting(Item::getId).containsExactly(NEW_ITEM_ID);
+    }
+
+    @Test
+    void searchItemsFindsSavedItem() {
+        // Given
+        Item savedItem = service.saveItem(baseItem);
+
+        // When
+        List<Item> result = service.searchItems("test", 10);
+
+        // Then
+        assertThat(result).extracting(Item::getId).containsExactly(savedItem.getId(), ITEM_ID, NEW_ITEM_ID);
+    }
+
+    @Test
+    void getItemByNameIgnoresCase() {
+        // When
+        Item result = service.getItemByName(CREATE_TEST.toUpperCase());
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getId()).isEqualTo(ITEM_ID);
+    }
+
     @Test
     void getItemByNameNoSuchEntry() {
         // When
@@ -126,6 +395,16 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         compareItemTable(DATASET_SAVE, TABLE_NAME);
     }
 
+    @Test
+    void saveItemUpdatesIndex() {
+        // When
+        Item result = service.saveItem(baseItem);
+
+        // Then
+        assertThat(service.getItemById(result.getId()).getName()).isEqualTo(ITEM_NAME);
+        assertThat(service.getItemByName(ITEM_NAME).getId()).isEqualTo(result.getId());
+    }
+
     @Test
     void saveItemDuplicateEntry() {
         // Given
@@ -137,23 +416,115 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         // Then
     }
 
+    @Test
+    void saveItemRecordsMetrics() {
+        // When
+        service.saveItem(baseItem);
+
+        // Then
+        assertThat(meterRegistry.get(ItemMetrics.OPERATION_TIMER).tag("operation", "persist").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void saveItemDuplicateEntryRecordsMetrics() {
+        // Given
+        Item item = ItemBuilder.builder().name(CREATE_TEST).build();
+
+        // When
+        assertThrows(DuplicateEntryException.class, () -> service.saveItem(item));
+
+        // Then
+        assertThat(meterRegistry.get(ItemMetrics.DUPLICATE_COUNTER).tag("operation", "persist").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void saveItems() throws Exception {
+        // When
+        List<Item> result = service.saveItems(Arrays.asList(baseItem, secondItem));
+
+        // Then
+        assertThat(result).hasSize(2);
+        assertThat(result).extracting(Item::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(service.getItemByName(SECOND_NAME).getId()).isEqualTo(result.get(1).getId());
+        compareItemTable(DATASET_SAVE_BATCH, TABLE_NAME);
+    }
+
+    @Test
+    void saveItemsDuplicateInBatch() throws Exception {
+        // Given
+        Item item = ItemBuilder.builder().name(ITEM_NAME.toUpperCase()).lead(ITEM_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+
+        // When
+        assertThrows(DuplicateEntryException.class, () -> service.saveItems(Arrays.asList(baseItem, item)));
+
+        // Then
+        compareItemTable(DATASET_INITIAL, TABLE_NAME);
+    }
+
+    @Test
+    void saveItemsDuplicateEntry() throws Exception {
+        // Given
+        Item item = ItemBuilder.builder().name(CREATE_TEST).lead(ITEM_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+
+        // When
+        assertThrows(DuplicateEntryException.class, () -> service.saveItems(Arrays.asList(baseItem, item)));
+
+        // Then
+        compareItemTable(DATASET_INITIAL, TABLE_NAME);
+    }
+
+    @Test
+    void saveItemDuplicateEntryConcurrentlyCreated() {
+        // Given
+        insertBehindTheServicesBack(OTHER_ITEM_ID, ITEM_NAME);
+
+        // When
+        assertThrows(DuplicateEntryException.class, () -> service.saveItem(baseItem));
+    }
+
     @Test
     void updateItem() throws Exception {
         // When
-        Item result = service.updateItem(updateItem);
+        Item result = service.updateItem(updateItem, null);
 
         // Then
         assertThat(result).isNotNull();
+        assertThat(result.getVersion()).isEqualTo(1);
+        assertThat(service.getItemById(ITEM_ID).getVersion()).isEqualTo(1);
+        compareItemTable(DATASET_UPDATE, TABLE_NAME);
+    }
+
+    @Test
+    void updateItemExpectedVersion() throws Exception {
+        // Given
+        service.updateItem(ItemBuilder.builder().id(ITEM_ID).name(CREATE_TEST).lead(ITEM_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build(), 0);
+
+        // When
+        Item result = service.updateItem(updateItem, 1);
+
+        // Then
+        assertThat(result.getVersion()).isEqualTo(2);
         compareItemTable(DATASET_UPDATE, TABLE_NAME);
     }
 
+    @Test
+    void updateItemStaleEntry() throws Exception {
+        // When
+        assertThrows(StaleEntryException.class, () -> service.updateItem(updateItem, 3));
+
+        // Then
+        compareItemTable(DATASET_INITIAL, TABLE_NAME);
+    }
+
     @Test
     void updateItemSameNameSameItem() throws Exception {
         // Given
         Item item = ItemBuilder.builder().id(ITEM_ID).name(CREATE_TEST).lead(ITEM_LEAD).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
 
         // When
-        Item result = service.updateItem(item);
+        Item result = service.updateItem(item, null);
 
         // Then
         assertThat(result).isNotNull();
@@ -166,18 +537,117 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         Item item = ItemBuilder.builder().id(ITEM_ID).name(MORE_TESTS).lead(ITEM_LEAD).build();
 
         // When
-        assertThrows(DuplicateEntryException.class, () -> service.updateItem(item));
+        assertThrows(DuplicateEntryException.class, () -> service.updateItem(item, null));
 
         // Then
     }
 
+    @Test
+    void updateItemDuplicateEntryConcurrentlyCreated() {
+        // Given
+        insertBehindTheServicesBack(OTHER_ITEM_ID, ITEM_NAME);
+
+        // When
+        assertThrows(DuplicateEntryException.class, () -> service.updateItem(updateItem, null));
+    }
+
+    @Test
+    void updateItemConcurrentlyWithDelete() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                Item savedItem = service.saveItem(ItemBuilder.builder().name("item " + round).lead(ITEM_DESCRIPTION)
+                        .itemType(GeneratedItem.ItemType.BOARDGAMES).build());
+                Item renamedItem = ItemBuilder.builder().id(savedItem.getId()).name("renamed " + round)
+                        .lead(ITEM_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Object> update = executor.submit(() -> {
+                    await(start);
+                    try {
+                        return service.updateItem(renamedItem, null);
+                    } catch (NoSuchEntryException e) {
+                        // the delete came first
+                        return null;
+                    }
+                });
+                Future<Object> delete = executor.submit(() -> {
+                    await(start);
+                    service.deleteItem(savedItem.getId());
+                    return null;
+                });
+
+                // When
+                start.countDown();
+                update.get(10, TimeUnit.SECONDS);
+                delete.get(10, TimeUnit.SECONDS);
+
+                // Then
+                String id = savedItem.getId();
+                assertThrows(NoSuchEntryException.class, () -> service.getItemById(id));
+                assertThat(service.getItemIdByName(renamedItem.getName())).isNotPresent();
+                assertThat(service.searchItems("renamed", 10)).isEmpty();
+            }
+            assertThat(service.getItemCount(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES))).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateItemConcurrentlyKeepsLatestVersion() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Object>> updates = new ArrayList<>();
+                for (String lead : Arrays.asList("first lead " + round, "second lead " + round)) {
+                    Item item = ItemBuilder.builder().id(ITEM_ID).name(CREATE_TEST).lead(lead)
+                            .itemType(GeneratedItem.ItemType.BOARDGAMES).build();
+                    updates.add(executor.submit(() -> {
+                        await(start);
+                        try {
+                            return service.updateItem(item, null);
+                        } catch (StaleEntryException e) {
+                            // the other update came first
+                            return null;
+                        }
+                    }));
+                }
+
+                // When
+                start.countDown();
+                for (Future<Object> update : updates) {
+                    update.get(10, TimeUnit.SECONDS);
+                }
+
+                // Then
+                List<Integer> versions = sqlExecutor.executeQuery("SELECT version FROM " + sqlExecutor.getItemTable()
+                        + " WHERE id = ?", Collections.singletonList(ITEM_ID), resultSet -> resultSet.getInt(1));
+                assertThat(service.getItemById(ITEM_ID).getVersion()).isEqualTo(versions.get(0));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateItemDeletedBehindTheServicesBack() {
+        // Given
+        sqlExecutor.executeUpdate("DELETE FROM " + sqlExecutor.getItemTable() + " WHERE id = ?", Collections.singletonList(ITEM_ID));
+
+        // When
+        assertThrows(NoSuchEntryException.class, () -> service.updateItem(updateItem, null));
+    }
+
     @Test
     void updateItemNoSuchEntry() {
         // Given
         Item item = ItemBuilder.builder().id(UNKNOWN_ITEM_ID).name(MORE_TESTS).lead(ITEM_LEAD).build();
 
         // When
-        assertThrows(NoSuchEntryException.class, () -> service.updateItem(item));
+        assertThrows(NoSuchEntryException.class, () -> service.updateItem(item, null));
     }
 
     @Test
@@ -189,6 +659,186 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         compareItemTable(DATASET_DELETE, TABLE_NAME);
     }
 
+    @Test
+    void deleteItemRecordsMetrics() {
+        // When
+        service.deleteItem(ITEM_ID);
+
+        // Then
+        assertThat(meterRegistry.get(ItemMetrics.OPERATION_TIMER).tag("operation", "remove").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteItemUpdatesIndex() {
+        // When
+        service.deleteItem(ITEM_ID);
+
+        // Then
+        assertThrows(NoSuchEntryException.class, () -> service.getItemById(ITEM_ID));
+        assertThrows(NoSuchEntryException.class, () -> service.getItemByName(CREATE_TEST));
+    }
+
+    @Test
+    void deleteItems() throws DatabaseUnitException, SQLException {
+        // When
+        int result = service.deleteItems(Arrays.asList(NEW_ITEM_ID, UNKNOWN_ITEM_ID));
+
+        // Then
+        assertThat(result).isEqualTo(1);
+        assertThrows(NoSuchEntryException.class, () -> service.getItemById(NEW_ITEM_ID));
+        assertThat(service.getItemById(ITEM_ID)).isNotNull();
+        assertThat(service.getItemList().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteItemsByType() {
+        // When
+        int result = service.deleteItemsByType(GeneratedItem.ItemType.BOARDGAMES);
+
+        // Then
+        assertThat(result).isEqualTo(2);
+        assertThat(service.getItemCount()).isZero();
+        assertThat(service.getItemList().count()).isZero();
+        assertThrows(NoSuchEntryException.class, () -> service.getItemByName(CREATE_TEST));
+    }
+
+    @Test
+    void getChanges() {
+        // Given
+        long token = service.getLatestChangeToken();
+        Item savedItem = service.saveItem(baseItem);
+        service.updateItem(updateItem, null);
+        service.deleteItem(NEW_ITEM_ID);
+        service.deleteItem(UNKNOWN_ITEM_ID);
+
+        // When
+        List<ItemChange> result = service.getChanges(token, 10);
+
+        // Then
+        assertThat(result).extracting(ItemChange::getItemId).containsExactly(savedItem.getId(), ITEM_ID, NEW_ITEM_ID);
+        assertThat(result).extracting(ItemChange::getOperation).containsExactly(
+                ItemChange.Operation.CREATE, ItemChange.Operation.UPDATE, ItemChange.Operation.DELETE);
+        assertThat(result).extracting(ItemChange::getToken).isSorted();
+        assertThat(service.getLatestChangeToken()).isEqualTo(result.get(2).getToken());
+    }
+
+    @Test
+    void getChangesAfterLimit() {
+        // Given
+        long token = service.getLatestChangeToken();
+        service.deleteItems(Arrays.asList(ITEM_ID, NEW_ITEM_ID));
+        List<ItemChange> firstPage = service.getChanges(token, 1);
+
+        // When
+        List<ItemChange> result = service.getChanges(firstPage.get(0).getToken(), 10);
+
+        // Then
+        assertThat(firstPage).hasSize(1);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getOperation()).isEqualTo(ItemChange.Operation.DELETE);
+        assertThat(Arrays.asList(firstPage.get(0).getItemId(), result.get(0).getItemId()))
+                .containsExactlyInAnyOrder(ITEM_ID, NEW_ITEM_ID);
+    }
+
+    @Test
+    void getChangesRolledBackWriteIsNotLogged() {
+        // Given
+        long token = service.getLatestChangeToken();
+        insertBehindTheServicesBack(OTHER_ITEM_ID, ITEM_NAME);
+        assertThrows(DuplicateEntryException.class, () -> service.saveItem(baseItem));
+
+        // When
+        List<ItemChange> result = service.getChanges(token, 10);
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void changeListenerCalledAfterCommit() {
+        // Given
+        List<ItemChange> changes = new ArrayList<>();
+        service.addChangeListener(changes::add);
+
+        // When
+        Item savedItem = service.saveItem(baseItem);
+        assertThrows(DuplicateEntryException.class, () -> service.saveItem(
+                ItemBuilder.builder().name(ITEM_NAME).lead(ITEM_DESCRIPTION).itemType(GeneratedItem.ItemType.BOARDGAMES).build()));
+        service.deleteItems(Arrays.asList(ITEM_ID, UNKNOWN_ITEM_ID));
+
+        // Then
+        assertThat(changes).extracting(ItemChange::getItemId).containsExactly(savedItem.getId(), ITEM_ID);
+        assertThat(changes).extracting(ItemChange::getOperation).containsExactly(
+                ItemChange.Operation.CREATE, ItemChange.Operation.DELETE);
+        assertThat(changes.get(0).getItem()).hasValueSatisfying(item -> assertThat(item.getName()).isEqualTo(ITEM_NAME));
+        assertThat(changes.get(1).getItem()).isEmpty();
+        assertThat(changes.get(1).getToken()).isEqualTo(service.getLatestChangeToken());
+    }
+
+    @Test
+    void getChangesHoldsBackChangesAfterWriteInProgress() throws Exception {
+        // Given
+        ItemChangeLog changeLog = new ItemChangeLog(sqlExecutor, CHANGE_RETENTION_MS, 0);
+        List<ItemChange> delivered = new CopyOnWriteArrayList<>();
+        changeLog.addListener(delivered::add);
+        long token = changeLog.getLatestToken();
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> slowWrite = executor.submit(() -> changeLog.write(write -> {
+                changeLog.record(write, ItemChange.Operation.UPDATE, ItemBuilder.builder().id(ITEM_ID).build());
+                recorded.countDown();
+                await(commit);
+                return null;
+            }));
+            await(recorded);
+
+            // When
+            changeLog.write(write -> {
+                changeLog.record(write, ItemChange.Operation.UPDATE, ItemBuilder.builder().id(NEW_ITEM_ID).build());
+                return null;
+            });
+            List<ItemChange> heldBack = changeLog.findAfter(token, 10);
+            long heldBackToken = changeLog.getLatestToken();
+            List<ItemChange> deliveredBeforeCommit = new ArrayList<>(delivered);
+            commit.countDown();
+            slowWrite.get(10, TimeUnit.SECONDS);
+
+            // Then
+            List<ItemChange> result = changeLog.findAfter(token, 10);
+            assertThat(heldBack).isEmpty();
+            assertThat(deliveredBeforeCommit).isEmpty();
+            assertThat(result).extracting(ItemChange::getItemId).containsExactly(ITEM_ID, NEW_ITEM_ID);
+            assertThat(heldBackToken).isLessThan(result.get(0).getToken());
+            assertThat(delivered).extracting(ItemChange::getItemId).containsExactly(ITEM_ID, NEW_ITEM_ID);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getChangesExpiredToken() throws InterruptedException {
+        // Given
+        long token = service.getLatestChangeToken();
+        service.deleteItem(ITEM_ID);
+        service.deleteItem(NEW_ITEM_ID);
+        // give the changes a timestamp before the compaction threshold
+        Thread.sleep(10);
+        ItemChangeLog changeLog = new ItemChangeLog(sqlExecutor, 0, 0);
+
+        // When
+        changeLog.compact();
+
+        // Then
+        assertThrows(ExpiredChangeTokenException.class, () -> changeLog.findAfter(token, 10));
+        // the most recent change is kept
+        assertThat(changeLog.findAfter(changeLog.getLatestToken() - 1, 10))
+                .extracting(ItemChange::getItemId).containsExactly(NEW_ITEM_ID);
+    }
+
     @Test
     void deleteItemUnknownId() throws DatabaseUnitException, SQLException {
         // Test
@@ -197,4 +847,22 @@ class ItemServiceTest extends SpeedmentDBTestCase implements WithAssertions {
         // Then
         compareItemTable(DATASET_INITIAL, TABLE_NAME);
     }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Inserts an item directly into the database, so the service doesn't know about it. This simulates an item
+     * created concurrently by another instance of the service.
+     */
+    private void insertBehindTheServicesBack(String id, String name) {
+        sqlExecutor.executeUpdate("INSERT INTO " + sqlExecutor.getItemTable() + " (id, name, lead, item_type) VALUES (?, ?, ?, ?)",
+                Arrays.asList(id, name, ITEM_DESCRIPTION, GeneratedItem.ItemType.BOARDGAMES.toDatabase()));
+    }
 }
@@ -0,0 +1,51 @@
+package com.ractoc.tutorials.speedment.service;
+
+import com.ractoc.tutorials.speedment.db.speedment.my_collection.item.generated.GeneratedItem;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+@DisplayName("Test the ItemTypeCounters")
+class ItemTypeCountersTest implements WithAssertions {
+
+    private ItemTypeCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new ItemTypeCounters(Collections.singletonMap(GeneratedItem.ItemType.BOARDGAMES, 2L));
+    }
+
+    @Test
+    void counts() {
+        // When
+        long result = counters.count(EnumSet.of(GeneratedItem.ItemType.BOARDGAMES));
+
+        // Then
+        assertThat(result).isEqualTo(2);
+        assertThat(counters.counts()).containsOnlyKeys(GeneratedItem.ItemType.values());
+    }
+
+    @Test
+    void addedAndRemoved() {
+        // When
+        counters.added(GeneratedItem.ItemType.BOARDGAMES);
+        counters.added(GeneratedItem.ItemType.BOARDGAMES);
+        counters.removed(GeneratedItem.ItemType.BOARDGAMES);
+
+        // Then
+        assertThat(counters.counts()).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 3L);
+    }
+
+    @Test
+    void changedToSameType() {
+        // When
+        counters.changed(GeneratedItem.ItemType.BOARDGAMES, GeneratedItem.ItemType.BOARDGAMES);
+
+        // Then
+        assertThat(counters.counts()).containsEntry(GeneratedItem.ItemType.BOARDGAMES, 2L);
+    }
+}
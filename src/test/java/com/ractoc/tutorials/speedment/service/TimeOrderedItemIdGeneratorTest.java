@@ -0,0 +1,71 @@
+package com.ractoc.tutorials.speedment.service;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayName("Test the TimeOrderedItemIdGenerator")
+class TimeOrderedItemIdGeneratorTest implements WithAssertions {
+
+    private static final String UUID_PATTERN = "[a-fA-F0-9]{8}(-[a-fA-F0-9]{4}){3}-[a-fA-F0-9]{12}";
+    private static final long TEST_TIME = 1_571_400_000_000L;
+
+    private final AtomicLong time = new AtomicLong(TEST_TIME);
+    private final TimeOrderedItemIdGenerator generator = new TimeOrderedItemIdGenerator(time::get);
+
+    @Test
+    void nextIdIsVersion7Uuid() {
+        // When
+        String result = generator.nextId();
+
+        // Then
+        assertThat(result).matches(UUID_PATTERN);
+        UUID uuid = UUID.fromString(result);
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(TEST_TIME);
+    }
+
+    @Test
+    void idsAreOrderedWithinTheSameMillisecond() {
+        // When
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            result.add(generator.nextId());
+        }
+
+        // Then
+        assertThat(result).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void idsAreOrderedWhenTheClockMovesBack() {
+        // Given
+        String first = generator.nextId();
+        time.addAndGet(-1000);
+
+        // When
+        String result = generator.nextId();
+
+        // Then
+        assertThat(result.compareTo(first)).isPositive();
+    }
+
+    @Test
+    void idsAreOrderedOverTime() {
+        // Given
+        String first = generator.nextId();
+        time.incrementAndGet();
+
+        // When
+        String result = generator.nextId();
+
+        // Then
+        assertThat(result.compareTo(first)).isPositive();
+    }
+}